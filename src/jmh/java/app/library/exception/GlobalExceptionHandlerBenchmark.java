@@ -0,0 +1,84 @@
+package app.library.exception;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.servlet.HandlerMapping;
+
+import app.library.model.dto.BookRequestDTO;
+import app.library.model.dto.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Error body construction of {@link GlobalExceptionHandler}. The exceptions are created once, so only
+ * the handlers are measured, not the stack traces. The errors are counted in a {@link SimpleMeterRegistry},
+ * as they are in a Prometheus one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler(
+            new StaticListableBeanFactory(Map.of("meterRegistry", new SimpleMeterRegistry()))
+                    .getBeanProvider(MeterRegistry.class));
+
+    private MockHttpServletRequest request;
+
+    private ResourceNotFoundException notFound;
+    private ResourceAlreadyExistsException conflict;
+    private MethodArgumentNotValidException invalidBook;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        request = new MockHttpServletRequest("PUT", "/api/books/99/borrow");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books/{id}/borrow");
+
+        notFound = new ResourceNotFoundException("Book not found with id: 99");
+        conflict = new ResourceAlreadyExistsException("Book is already borrowed");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new BookRequestDTO(), "bookRequestDTO");
+        bindingResult.addError(new FieldError("bookRequestDTO", "isbn", "Invalid ISBN format"));
+        bindingResult.addError(new FieldError("bookRequestDTO", "title", "Title is required"));
+        bindingResult.addError(new FieldError("bookRequestDTO", "author", "Author is required"));
+        MethodParameter parameter = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("setUp"), -1);
+        invalidBook = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFound() {
+        return handler.handleResourceNotFoundException(notFound, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> conflict() {
+        return handler.handleResourceAlreadyExistsException(conflict, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validationErrors() {
+        return handler.handleValidationExceptions(invalidBook, request);
+    }
+}
@@ -0,0 +1,60 @@
+package app.library.model.dto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Jackson serialization of book lists, from a single book up to a large page, with the object mapper
+ * configured the way Spring Boot configures it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookResponseSerializationBenchmark {
+
+    @Param({"1", "20", "100", "1000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<BookResponseDTO> books;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build()
+                .writerFor(new TypeReference<List<BookResponseDTO>>() { });
+        books = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            // Every other book is borrowed, so both shapes of the DTO are serialized
+            boolean borrowed = id % 2 == 0;
+            books.add(new BookResponseDTO(id, "The Hobbit", "J.R.R. Tolkien", "978-0-547-92822-7",
+                    borrowed ? 7L : null, borrowed ? "John Doe" : null,
+                    borrowed ? Instant.parse("2023-06-15T10:30:00Z") : null, Instant.parse("2023-05-01T09:15:00Z")));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(books);
+    }
+}
@@ -0,0 +1,76 @@
+package app.library.service.impl;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.BorrowerResponseDTO;
+import app.library.model.entity.Book;
+import app.library.model.entity.Borrower;
+import app.library.model.entity.Title;
+
+/**
+ * Entity to DTO mapping of {@link BookServiceImpl} and {@link BorrowerServiceImpl}, used by the write paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private Book availableBook;
+    private Book borrowedBook;
+    private Borrower borrower;
+
+    @Setup
+    public void setUp() {
+        borrower = new Borrower();
+        borrower.setId(7L);
+        borrower.setName("John Doe");
+        borrower.setEmail("john.doe@example.com");
+        borrower.setCreatedAt(Instant.parse("2023-05-01T09:15:00Z"));
+
+        availableBook = book(1L);
+        borrowedBook = book(2L);
+        borrowedBook.setBorrower(borrower);
+        borrowedBook.setBorrowedAt(Instant.parse("2023-06-15T10:30:00Z"));
+    }
+
+    @Benchmark
+    public BookResponseDTO availableBook() {
+        return BookServiceImpl.convertToDto(availableBook);
+    }
+
+    @Benchmark
+    public BookResponseDTO borrowedBook() {
+        return BookServiceImpl.convertToDto(borrowedBook);
+    }
+
+    @Benchmark
+    public BorrowerResponseDTO borrower() {
+        return BorrowerServiceImpl.convertToDto(borrower);
+    }
+
+    private static Book book(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setIsbn("978-0-547-92822-7");
+        book.setIsbn13(9780547928227L);
+        book.setWork(new Title(9780547928227L, "The Hobbit", "J.R.R. Tolkien"));
+        book.setCreatedAt(Instant.parse("2023-05-01T09:15:00Z"));
+        return book;
+    }
+}
@@ -0,0 +1,40 @@
+package app.library.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ISBNValidator#isValid} as run by bean validation on every book request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ISBNValidatorBenchmark {
+
+    // Valid and invalid (wrong check digit) ISBN-13 and ISBN-10, each with and without hyphens
+    @Param({
+        "978-0-306-40615-7", "9780306406157", "978-0-306-40615-8", "9780306406158",
+        "0-306-40615-2", "0306406152", "0-306-40615-3", "0306406153"
+    })
+    private String isbn;
+
+    private final ISBNValidator validator = new ISBNValidator();
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(isbn, null);
+    }
+}
@@ -0,0 +1,55 @@
+package app.library.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and outcomes of one endpoint, safe to record from every virtual user at once.
+ */
+class EndpointStats {
+
+    private final String endpoint;
+    // Microseconds, with three significant digits
+    private final Recorder latencies = new Recorder(3);
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Records a response. 409 is an expected answer under contention (every copy of a hot ISBN is out),
+     * so it is counted apart from the errors, but its latency is recorded all the same.
+     */
+    void record(long startNanos, int status) {
+        latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        if (status == 409) {
+            conflicts.increment();
+        } else if (status >= 400) {
+            errors.increment();
+        }
+    }
+
+    void recordFailure() {
+        errors.increment();
+    }
+
+    /**
+     * Returns what was recorded since the previous call, and starts over.
+     */
+    Snapshot snapshot() {
+        Histogram histogram = latencies.getIntervalHistogram();
+        return new Snapshot(histogram, conflicts.sumThenReset(), errors.sumThenReset());
+    }
+
+    record Snapshot(Histogram latencies, long conflicts, long errors) {
+    }
+}
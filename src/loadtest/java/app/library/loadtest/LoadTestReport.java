@@ -0,0 +1,94 @@
+package app.library.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Per-endpoint results of a run: printed as a table, saved as JSON, and compared with the JSON of an
+ * earlier run to catch regressions.
+ */
+record LoadTestReport(int concurrency, long durationSeconds, List<EndpointResult> endpoints) {
+
+    record EndpointResult(String endpoint, long requests, long conflicts, long errors, double throughput,
+            double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+    }
+
+    static LoadTestReport of(Map<String, EndpointStats> stats, int concurrency, Duration duration) {
+        List<EndpointResult> endpoints = new ArrayList<>();
+        for (EndpointStats endpointStats : stats.values()) {
+            EndpointStats.Snapshot snapshot = endpointStats.snapshot();
+            Histogram latencies = snapshot.latencies();
+            endpoints.add(new EndpointResult(endpointStats.endpoint(), latencies.getTotalCount(),
+                    snapshot.conflicts(), snapshot.errors(),
+                    latencies.getTotalCount() / (double) duration.toSeconds(),
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue())));
+        }
+        return new LoadTestReport(concurrency, duration.toSeconds(), endpoints);
+    }
+
+    String table() {
+        StringBuilder table = new StringBuilder(String.format("%-34s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "conflicts", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (EndpointResult result : endpoints) {
+            table.append(String.format("%-34s %9d %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", result.endpoint(),
+                    result.requests(), result.conflicts(), result.errors(), result.throughput(),
+                    result.p50Millis(), result.p99Millis(), result.p999Millis(), result.maxMillis()));
+        }
+        return table.toString();
+    }
+
+    void write(Path file, ObjectMapper objectMapper) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+
+    static LoadTestReport read(Path file, ObjectMapper objectMapper) throws IOException {
+        return objectMapper.readValue(file.toFile(), LoadTestReport.class);
+    }
+
+    /**
+     * Endpoints of the baseline whose throughput dropped, or whose p99 latency grew, by more than
+     * {@code maxRegression}, and endpoints that now answer with errors.
+     */
+    List<String> regressionsAgainst(LoadTestReport baseline, double maxRegression) {
+        Map<String, EndpointResult> current = endpoints.stream()
+                .collect(Collectors.toMap(EndpointResult::endpoint, Function.identity()));
+        List<String> regressions = new ArrayList<>();
+        for (EndpointResult before : baseline.endpoints()) {
+            EndpointResult after = current.get(before.endpoint());
+            if (after == null || before.requests() == 0) {
+                continue;
+            }
+            if (after.throughput() < before.throughput() * (1 - maxRegression)) {
+                regressions.add(String.format("%s: throughput %.1f req/s, baseline %.1f req/s",
+                        before.endpoint(), after.throughput(), before.throughput()));
+            }
+            if (after.p99Millis() > before.p99Millis() * (1 + maxRegression)) {
+                regressions.add(String.format("%s: p99 %.2f ms, baseline %.2f ms",
+                        before.endpoint(), after.p99Millis(), before.p99Millis()));
+            }
+            if (after.errors() > 0 && before.errors() == 0) {
+                regressions.add(String.format("%s: %d errors, baseline none", before.endpoint(), after.errors()));
+            }
+        }
+        return regressions;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
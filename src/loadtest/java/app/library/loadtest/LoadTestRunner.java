@@ -0,0 +1,137 @@
+package app.library.loadtest;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.library.BookLibraryApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * End-to-end load test: starts PostgreSQL from embedded binaries (no Docker, no network), starts the
+ * application on a random port against it, seeds a catalog through the API and drives a mixed
+ * workload with {@code loadtest.concurrency} virtual users. Prints throughput and p50/p99/p99.9
+ * latency per endpoint, writes them as JSON and, given a baseline file, exits with status 1 when an
+ * endpoint regressed.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:exec}, see the loadtest profile in pom.xml.
+ * <p>
+ * Each virtual user waits for a response before sending the next request (a closed workload), so
+ * the latencies show what a fixed number of concurrent clients experience, not an arrival rate.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        EmbeddedPostgres embeddedPostgres = settings.jdbcUrl() == null ? EmbeddedPostgres.builder().start() : null;
+        int exitCode;
+        try (ConfigurableApplicationContext application = startApplication(settings, embeddedPostgres)) {
+            exitCode = run(settings, ((WebServerApplicationContext) application).getWebServer().getPort());
+        } finally {
+            if (embeddedPostgres != null) {
+                embeddedPostgres.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestSettings settings, EmbeddedPostgres embeddedPostgres) {
+        String jdbcUrl = embeddedPostgres == null ? settings.jdbcUrl()
+                : "jdbc:postgresql://localhost:" + embeddedPostgres.getPort() + "/postgres";
+        // R2DBC takes the credentials from its own properties, not from the query string
+        String r2dbcUrl = jdbcUrl.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", "");
+        Map<String, Object> properties = Map.ofEntries(
+                // The runner is on the test classpath, whose application.yml (for the Testcontainers tests)
+                // would hide the one the application ships with
+                Map.entry("spring.config.location", mainApplicationYaml()),
+                Map.entry("spring.datasource.url", jdbcUrl),
+                Map.entry("spring.datasource.username", settings.jdbcUsername()),
+                Map.entry("spring.datasource.password", settings.jdbcPassword()),
+                Map.entry("spring.r2dbc.url", r2dbcUrl),
+                Map.entry("spring.r2dbc.username", settings.jdbcUsername()),
+                Map.entry("spring.r2dbc.password", settings.jdbcPassword()),
+                Map.entry("spring.jpa.show-sql", false),
+                Map.entry("server.port", 0),
+                // Keep the console for the report; the full log goes to the file
+                Map.entry("logging.level.root", "WARN"),
+                Map.entry("logging.level.app.library", "WARN"),
+                Map.entry("logging.level.org.springframework", "WARN"),
+                Map.entry("logging.file.name", "target/loadtest-application.log"));
+        // As command line arguments, which take precedence over every application.yml
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(BookLibraryApplication.class).run(args);
+    }
+
+    private static String mainApplicationYaml() {
+        try {
+            URI classes = BookLibraryApplication.class.getProtectionDomain().getCodeSource().getLocation().toURI();
+            return classes.resolve("application.yml").toString();
+        } catch (URISyntaxException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static int run(LoadTestSettings settings, int port) throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient httpClient = HttpClient.newBuilder().executor(users).build()) {
+            Workload workload = new Workload(httpClient, URI.create("http://localhost:" + port), settings);
+            log("Seeding %d borrowers and %d ISBNs", settings.borrowers(), settings.isbns() + settings.hotIsbns());
+            workload.seed(settings);
+
+            log("Warming up for %ds with %d virtual users", settings.warmup().toSeconds(), settings.concurrency());
+            drive(workload, users, settings.concurrency(), settings.warmup());
+            LoadTestReport.of(workload.stats(), settings.concurrency(), settings.warmup());
+
+            log("Measuring for %ds with %d virtual users", settings.duration().toSeconds(), settings.concurrency());
+            drive(workload, users, settings.concurrency(), settings.duration());
+            LoadTestReport report = LoadTestReport.of(workload.stats(), settings.concurrency(), settings.duration());
+            System.out.print(report.table());
+            report.write(settings.resultFile(), objectMapper);
+            log("Results written to %s", settings.resultFile().toAbsolutePath());
+
+            if (settings.baselineFile() == null) {
+                return 0;
+            }
+            List<String> regressions = report.regressionsAgainst(
+                    LoadTestReport.read(settings.baselineFile(), objectMapper), settings.maxRegression());
+            regressions.forEach(regression -> log("REGRESSION %s", regression));
+            return regressions.isEmpty() ? 0 : 1;
+        }
+    }
+
+    private static void drive(Workload workload, ExecutorService users, int concurrency, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<?>> running = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            running.add(users.submit(() -> workload.run(deadline)));
+        }
+        for (Future<?> user : running) {
+            user.get();
+        }
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf("[loadtest] " + format + "%n", args);
+    }
+}
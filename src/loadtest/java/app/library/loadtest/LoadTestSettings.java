@@ -0,0 +1,81 @@
+package app.library.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import app.library.loadtest.Workload.Operation;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties (the loadtest Maven profile
+ * passes them on from its properties).
+ */
+record LoadTestSettings(
+        // Virtual users, each sending its next request as soon as the previous one is answered
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        // Catalog seeded before the run
+        int borrowers,
+        int isbns,
+        int copiesPerIsbn,
+        // ISBNs whose copies all users compete for when borrowing
+        int hotIsbns,
+        int copiesPerHotIsbn,
+        Map<Operation, Integer> mix,
+        // Use this database instead of starting an embedded PostgreSQL
+        String jdbcUrl,
+        String jdbcUsername,
+        String jdbcPassword,
+        Path resultFile,
+        Path baselineFile,
+        // Allowed drop in throughput, or growth in p99 latency, against the baseline (0.2 is 20%)
+        double maxRegression) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.concurrency", 64),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 15L)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60L)),
+                Integer.getInteger("loadtest.borrowers", 1000),
+                Integer.getInteger("loadtest.isbns", 5000),
+                Integer.getInteger("loadtest.copiesPerIsbn", 3),
+                Integer.getInteger("loadtest.hotIsbns", 3),
+                Integer.getInteger("loadtest.copiesPerHotIsbn", 4),
+                parseMix(System.getProperty("loadtest.mix", "browse=25,search=15,get=35,create=5,borrow=20")),
+                blankToNull(System.getProperty("loadtest.jdbcUrl")),
+                System.getProperty("loadtest.jdbcUsername", "postgres"),
+                System.getProperty("loadtest.jdbcPassword", "postgres"),
+                Path.of(System.getProperty("loadtest.resultFile", "target/loadtest-result.json")),
+                pathOrNull(System.getProperty("loadtest.baselineFile")),
+                Double.parseDouble(System.getProperty("loadtest.maxRegression", "0.2")));
+    }
+
+    // "browse=25,get=35,..." to weights per operation; operations left out are not run
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix selects no operation: " + mix);
+        }
+        return weights;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static Path pathOrNull(String value) {
+        return value == null || value.isBlank() ? null : Path.of(value);
+    }
+}
@@ -0,0 +1,253 @@
+package app.library.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.library.model.dto.BookBatchItemResultDTO;
+import app.library.model.dto.BookBatchResponseDTO;
+import app.library.model.dto.BookRequestDTO;
+import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.BorrowerResponseDTO;
+import app.library.model.dto.CursorPageResponseDTO;
+
+/**
+ * Seeds the catalog through the REST API and then plays a mix of requests against it, the way the
+ * desks and the mobile app use it.
+ */
+class Workload {
+
+    enum Operation {
+        // A page of GET /api/books at a random position in the catalog
+        BROWSE,
+        // GET /api/books/search on the beginning of a title word
+        SEARCH,
+        GET,
+        // A new copy of a new ISBN
+        CREATE,
+        // Borrow any copy of a hot ISBN and, when one was free, return it
+        BORROW
+    }
+
+    private static final String[] WORDS = {
+        "Silent", "River", "Garden", "Winter", "Shadow", "Empire", "Glass", "Harbor", "Lantern", "Orchard",
+        "Compass", "Meadow", "Thunder", "Velvet", "Falcon", "Ember", "Citadel", "Willow", "Frontier", "Mirror"
+    };
+    private static final String[] AUTHORS = {
+        "Ann Walker", "Robert Hale", "Mei Lin", "Oskar Berg", "Lucia Romano", "Samir Haddad", "Grace Okafor",
+        "Tomas Novak", "Ingrid Holm", "Daniel Reyes"
+    };
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final int[] operationByWeight;
+    private final AtomicLong nextIsbn = new AtomicLong();
+
+    private List<Long> bookIds = List.of();
+    private List<Long> borrowerIds = List.of();
+    private List<String> hotIsbns = List.of();
+
+    Workload(HttpClient httpClient, URI baseUri, LoadTestSettings settings) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        List<Integer> operations = new ArrayList<>();
+        settings.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation.ordinal());
+            }
+        });
+        this.operationByWeight = operations.stream().mapToInt(Integer::intValue).toArray();
+        for (String endpoint : List.of("GET /api/books", "GET /api/books/search", "GET /api/books/{id}",
+                "POST /api/books", "PUT /api/books/isbn/{isbn}/borrow", "PUT /api/books/{id}/return")) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    Map<String, EndpointStats> stats() {
+        return stats;
+    }
+
+    /**
+     * Registers the borrowers with one CSV import and the books with bulk registrations, and keeps
+     * their ids for the run.
+     */
+    void seed(LoadTestSettings settings) throws IOException, InterruptedException {
+        StringBuilder csv = new StringBuilder("name,email\n");
+        for (int i = 1; i <= settings.borrowers(); i++) {
+            csv.append("Reader ").append(i).append(",reader").append(i).append("@example.com\n");
+        }
+        send(HttpRequest.newBuilder(baseUri.resolve("/api/borrowers/import"))
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString())), 200);
+        borrowerIds = readAllBorrowerIds();
+
+        List<BookRequestDTO> books = new ArrayList<>();
+        List<String> hot = new ArrayList<>();
+        for (int i = 0; i < settings.isbns() + settings.hotIsbns(); i++) {
+            String isbn = newIsbn();
+            boolean isHot = i < settings.hotIsbns();
+            if (isHot) {
+                hot.add(isbn);
+            }
+            String title = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+            String author = AUTHORS[i % AUTHORS.length];
+            for (int copy = 0; copy < (isHot ? settings.copiesPerHotIsbn() : settings.copiesPerIsbn()); copy++) {
+                books.add(bookRequest(title, author, isbn));
+            }
+        }
+        List<Long> ids = new ArrayList<>(books.size());
+        for (int from = 0; from < books.size(); from += 1000) {
+            List<BookRequestDTO> chunk = books.subList(from, Math.min(from + 1000, books.size()));
+            BookBatchResponseDTO response = objectMapper.readValue(send(
+                    HttpRequest.newBuilder(baseUri.resolve("/api/books/batch"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(chunk))), 200),
+                    BookBatchResponseDTO.class);
+            for (BookBatchItemResultDTO item : response.getItems()) {
+                if (item.getStatus() != BookBatchItemResultDTO.Status.CREATED) {
+                    throw new IllegalStateException("Seeding failed: " + item.getError());
+                }
+                ids.add(item.getBook().getId());
+            }
+        }
+        bookIds = ids;
+        hotIsbns = hot;
+    }
+
+    /**
+     * Sends requests back to back until the deadline; run by every virtual user.
+     */
+    void run(long deadlineNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadlineNanos) {
+            Operation operation = Operation.values()[operationByWeight[random.nextInt(operationByWeight.length)]];
+            switch (operation) {
+                case BROWSE -> call("GET /api/books", get("/api/books?size=20&cursor=" + cursor(randomBookId(random))));
+                case SEARCH -> call("GET /api/books/search",
+                        get("/api/books/search?size=20&title=" + WORDS[random.nextInt(WORDS.length)].substring(0, 4)));
+                case GET -> call("GET /api/books/{id}", get("/api/books/" + randomBookId(random)));
+                case CREATE -> call("POST /api/books", HttpRequest.newBuilder(baseUri.resolve("/api/books"))
+                        .header("Content-Type", "application/json")
+                        .POST(json(bookRequest("New Arrival " + random.nextInt(1000), AUTHORS[random.nextInt(AUTHORS.length)], newIsbn()))));
+                case BORROW -> borrowAndReturn(random);
+            }
+        }
+    }
+
+    private void borrowAndReturn(ThreadLocalRandom random) {
+        String isbn = hotIsbns.get(random.nextInt(hotIsbns.size()));
+        long borrowerId = borrowerIds.get(random.nextInt(borrowerIds.size()));
+        HttpResponse<byte[]> borrowed = call("PUT /api/books/isbn/{isbn}/borrow",
+                HttpRequest.newBuilder(baseUri.resolve("/api/books/isbn/" + isbn + "/borrow"))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"borrowerId\":" + borrowerId + "}")));
+        if (borrowed == null || borrowed.statusCode() != 200) {
+            return;
+        }
+        try {
+            long bookId = objectMapper.readValue(borrowed.body(), BookResponseDTO.class).getId();
+            call("PUT /api/books/{id}/return", HttpRequest.newBuilder(baseUri.resolve("/api/books/" + bookId + "/return"))
+                    .PUT(HttpRequest.BodyPublishers.noBody()));
+        } catch (IOException ex) {
+            stats.get("PUT /api/books/isbn/{isbn}/borrow").recordFailure();
+        }
+    }
+
+    private HttpResponse<byte[]> call(String endpoint, HttpRequest.Builder request) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request.timeout(REQUEST_TIMEOUT).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            endpointStats.record(start, response.statusCode());
+            return response;
+        } catch (IOException ex) {
+            endpointStats.recordFailure();
+            return null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private List<Long> readAllBorrowerIds() throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            CursorPageResponseDTO<BorrowerResponseDTO> page = objectMapper.readValue(
+                    send(get("/api/borrowers?size=100&cursor=" + cursor), 200),
+                    new TypeReference<CursorPageResponseDTO<BorrowerResponseDTO>>() { });
+            page.getItems().forEach(borrower -> ids.add(borrower.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private byte[] send(HttpRequest.Builder request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(response.uri() + " answered " + response.statusCode() + ": "
+                    + new String(response.body()));
+        }
+        return response.body();
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET();
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private long randomBookId(ThreadLocalRandom random) {
+        return bookIds.get(random.nextInt(bookIds.size()));
+    }
+
+    // Same encoding as the cursors handed out by the API: the last id of the previous page
+    private static String cursor(long afterId) {
+        return CURSOR_ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(afterId).array());
+    }
+
+    // ISBN-13s in the 979 range, numbered from 1 so that every run registers the same ones
+    private String newIsbn() {
+        String digits = "979" + String.format("%09d", nextIsbn.incrementAndGet());
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+
+    private static BookRequestDTO bookRequest(String title, String author, String isbn) {
+        BookRequestDTO request = new BookRequestDTO();
+        request.setTitle(title);
+        request.setAuthor(author);
+        request.setIsbn(isbn);
+        return request;
+    }
+}
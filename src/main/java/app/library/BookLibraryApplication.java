@@ -2,8 +2,10 @@ package app.library;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is only used by the catalog API and is set up by R2dbcConfig, see there
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class BookLibraryApplication {
 
     public static void main(String[] args) {
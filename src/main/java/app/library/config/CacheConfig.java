@@ -0,0 +1,79 @@
+package app.library.config;
+
+import java.util.OptionalLong;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.config.LibraryConfig.LibraryProperties.CacheProperties;
+import app.library.config.LibraryConfig.LibraryProperties.EntityCacheProperties;
+import app.library.config.LibraryConfig.LibraryProperties.RegionProperties;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BOOKS = "books";
+    public static final String BORROWERS = "borrowers";
+    public static final String ISBN_TITLES = "isbnTitles";
+
+    // Regions of the Hibernate second-level cache, as named in the @Cache annotations of the entities
+    public static final String BOOK_REGION = "book";
+    public static final String BORROWER_REGION = "borrower";
+
+    /**
+     * One Caffeine cache per name with its own size and expiry. Statistics are recorded so that
+     * Spring Boot publishes them as {@code cache.gets}, {@code cache.puts} and {@code cache.evictions} metrics.
+     */
+    @Bean
+    public CacheManager cacheManager(LibraryProperties properties) {
+        CacheProperties cache = properties.getCache();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(BOOKS, Caffeine.from(cache.getBooks()).recordStats().build());
+        cacheManager.registerCustomCache(BORROWERS, Caffeine.from(cache.getBorrowers()).recordStats().build());
+        cacheManager.registerCustomCache(ISBN_TITLES, Caffeine.from(cache.getIsbnTitles()).recordStats().build());
+        return cacheManager;
+    }
+
+    /**
+     * Hands Hibernate a JCache manager (Caffeine) in which every second-level cache region already
+     * exists with its configured size and expiry; a region missing here fails startup instead of
+     * silently getting an unbounded cache. Hit and miss counts per region are published as the
+     * {@code hibernate.second.level.cache.requests} metric.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(LibraryProperties properties) {
+        EntityCacheProperties entityCache = properties.getEntityCache();
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        javax.cache.CacheManager cacheManager = provider.getCacheManager(
+                provider.getDefaultURI(), CacheConfig.class.getClassLoader());
+        createRegion(cacheManager, BOOK_REGION, entityCache.getBooks());
+        createRegion(cacheManager, BORROWER_REGION, entityCache.getBorrowers());
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+    private static void createRegion(javax.cache.CacheManager cacheManager, String name, RegionProperties region) {
+        // The JCache manager outlives the application context, which may be created more than once in a JVM
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,103 @@
+package app.library.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Configuration
+@EnableConfigurationProperties(LibraryConfig.LibraryProperties.class)
+public class LibraryConfig {
+
+    @ConfigurationProperties(prefix = "app.library")
+    @Data
+    public static class LibraryProperties {
+        private PaginationProperties pagination = new PaginationProperties();
+        private BatchProperties batch = new BatchProperties();
+        private SearchProperties search = new SearchProperties();
+        private CacheProperties cache = new CacheProperties();
+        private EntityCacheProperties entityCache = new EntityCacheProperties();
+        private LoanProperties loan = new LoanProperties();
+        private SqlStatisticsProperties sqlStatistics = new SqlStatisticsProperties();
+        private CacheInvalidationProperties cacheInvalidation = new CacheInvalidationProperties();
+
+        @Data
+        public static class PaginationProperties {
+            // Page size used when the client does not ask for one
+            private int defaultSize = 20;
+            // Hard upper bound on the page size, larger requests are clamped to it
+            private int maxSize = 100;
+        }
+
+        @Data
+        public static class BatchProperties {
+            // Largest number of items accepted by a single bulk request
+            private int maxItems = 10000;
+            // Rows sent per JDBC batch, the persistence context is flushed and cleared at the same interval
+            private int jdbcBatchSize = 500;
+            // Rejected lines listed in an import response; all of them are still counted
+            private int maxReportedRejections = 1000;
+        }
+
+        @Data
+        public static class SearchProperties {
+            // Shorter terms produce no trigrams and would fall back to a sequential scan; only applies to database searches
+            private int minTermLength = 3;
+            // Serve searches from the in-memory index once it has been loaded at startup
+            private boolean indexEnabled = true;
+        }
+
+        @Data
+        public static class CacheProperties {
+            // Caffeine specs (size and expiry) per cache; statistics are always recorded for the metrics
+            private String books = "maximumSize=10000,expireAfterWrite=10m";
+            private String borrowers = "maximumSize=10000,expireAfterWrite=10m";
+            // Title and author never change for an ISBN once registered, so these can live longer
+            private String isbnTitles = "maximumSize=50000,expireAfterWrite=1h";
+        }
+
+        @Data
+        public static class EntityCacheProperties {
+            // Regions of the Hibernate second-level cache; borrowers hardly ever change, so they can live longer
+            private RegionProperties books = new RegionProperties(10000, Duration.ofMinutes(10));
+            private RegionProperties borrowers = new RegionProperties(10000, Duration.ofHours(1));
+        }
+
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class RegionProperties {
+            private long maximumSize;
+            private Duration expireAfterWrite;
+        }
+
+        @Data
+        public static class LoanProperties {
+            // Monthly partitions of the loan history created ahead of the current month
+            private int partitionMonthsAhead = 3;
+        }
+
+        @Data
+        public static class SqlStatisticsProperties {
+            // Count and time the SQL statements of each API request; read by the conditions of SqlStatisticsConfig
+            private boolean enabled = true;
+            // Report them in the X-SQL-Statistics response header, meant for development
+            private boolean responseHeader = false;
+        }
+
+        @Data
+        public static class CacheInvalidationProperties {
+            // Evict the books and borrowers changed by any instance, announced by the database; see CacheInvalidationListener
+            private boolean enabled = true;
+            // Notifications received this long after the first one are applied together with it
+            private Duration coalesceWindow = Duration.ofMillis(10);
+            // Pause before listening again once the connection is lost
+            private Duration reconnectDelay = Duration.ofSeconds(1);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package app.library.config;
+
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Non-blocking database access for the read-only catalog API, configured by the standard
+ * {@code spring.r2dbc.*} properties. Boot's R2DBC auto-configuration is excluded and the pool is kept
+ * out of the context: a {@link ConnectionFactory} bean would switch off the JDBC DataSource that JPA,
+ * Flyway and the write paths use.
+ */
+@Configuration
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class R2dbcConfig {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient catalogDatabaseClient(R2dbcProperties properties) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("LibraryR2dbcPool")
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package app.library.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import app.library.sql.SqlStatisticsInterceptor;
+import app.library.sql.SqlStatisticsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the JDBC data source so that the statements of each API request are counted and timed, whether they
+ * come from Hibernate or from a JdbcTemplate.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.library.sql-statistics", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+@RequiredArgsConstructor
+public class SqlStatisticsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Bean
+    static BeanPostProcessor sqlStatisticsDataSourceProxy() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatisticsListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatisticsInterceptor(meterRegistry.getIfAvailable())).addPathPatterns("/api/**");
+    }
+}
@@ -1,21 +1,39 @@
 package app.library.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import app.library.model.dto.BookBatchResponseDTO;
 import app.library.model.dto.BookBorrowRequestDTO;
+import app.library.model.dto.BookLoanBatchRequestDTO;
+import app.library.model.dto.BookLoanBatchResponseDTO;
 import app.library.model.dto.BookRequestDTO;
 import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.CursorPageResponseDTO;
 import app.library.model.dto.ErrorResponse;
+import app.library.model.dto.IsbnAvailabilityDTO;
 import app.library.service.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -34,6 +52,7 @@ import lombok.RequiredArgsConstructor;
 public class BookController {
     
     private final BookService bookService;
+    private final ObjectMapper objectMapper;
     
     @Operation(
         summary = "Create a new book", 
@@ -55,18 +74,103 @@ public class BookController {
         return new ResponseEntity<>(createdBook, HttpStatus.CREATED);
     }
     
+    @Operation(
+        summary = "Create books in bulk", 
+        description = "Creates many books in one request, for example when a branch receives a shipment. " +
+                      "Each item is validated and checked for ISBN consistency on its own and the result is reported per item."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the per-item results", 
+                    content = @Content(schema = @Schema(implementation = BookBatchResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Too many items in the batch", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BookBatchResponseDTO> createBooks(
+            @Parameter(description = "Books to create", required = true) 
+            @RequestBody List<BookRequestDTO> bookRequestDTOs) {
+        BookBatchResponseDTO result = bookService.createBooks(bookRequestDTOs);
+        return ResponseEntity.ok(result);
+    }
+    
     @Operation(
         summary = "Get all books", 
-        description = "Retrieves all books in the library"
+        description = "Retrieves books in ascending id order, one page at a time. Pass the returned nextCursor to get the next page."
     )
-    @ApiResponse(responseCode = "200", description = "Books retrieved successfully", 
-                content = @Content(schema = @Schema(implementation = BookResponseDTO.class)))
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Books retrieved successfully", 
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
     @GetMapping
-    public ResponseEntity<List<BookResponseDTO>> getAllBooks() {
-        List<BookResponseDTO> books = bookService.getAllBooks();
+    public ResponseEntity<CursorPageResponseDTO<BookResponseDTO>> getAllBooks(
+            @Parameter(description = "Cursor returned by the previous page, omit for the first page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of books per page, capped by the server", example = "20") 
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponseDTO<BookResponseDTO> books = bookService.getAllBooks(cursor, size);
+        return ResponseEntity.ok(books);
+    }
+    
+    @Operation(
+        summary = "Search books", 
+        description = "Finds books matching all of the given title, author and ISBN terms, ignoring case. " +
+                      "Served from the in-memory search index, where every word of a term matches the start of a word " +
+                      "in the field; until the index is loaded the database matches title and author substrings and exact ISBNs. " +
+                      "Results are paged in ascending id order like the book list."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Matching books retrieved successfully", 
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "No search term, a term that is too short, or an invalid cursor", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageResponseDTO<BookResponseDTO>> searchBooks(
+            @Parameter(description = "Words or word beginnings of the title to look for", example = "hobb") 
+            @RequestParam(required = false) String title,
+            @Parameter(description = "Words or word beginnings of the author name to look for", example = "tolk") 
+            @RequestParam(required = false) String author,
+            @Parameter(description = "ISBN or the beginning of one, separators are ignored", example = "978054792") 
+            @RequestParam(required = false) String isbn,
+            @Parameter(description = "Cursor returned by the previous page, omit for the first page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of books per page, capped by the server", example = "20") 
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponseDTO<BookResponseDTO> books = bookService.searchBooks(title, author, isbn, cursor, size);
         return ResponseEntity.ok(books);
     }
     
+    @Operation(
+        summary = "Export all books", 
+        description = "Streams the whole catalog as newline-delimited JSON, one book per line in ascending id order"
+    )
+    @ApiResponse(responseCode = "200", description = "Catalog export streamed successfully", 
+                content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = BookResponseDTO.class)))
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        // Let the generator buffer fill up instead of flushing the response after every book
+        ObjectWriter writer = objectMapper.writerFor(BookResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                bookService.exportBooks(book -> {
+                    try {
+                        writer.writeValue(generator, book);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
     @Operation(
         summary = "Get a book by ID", 
         description = "Retrieves a specific book by its ID"
@@ -74,15 +178,29 @@ public class BookController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Book retrieved successfully", 
                     content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Book has not changed since the entity tag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Book not found", 
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{id}")
     public ResponseEntity<BookResponseDTO> getBookById(
             @Parameter(description = "ID of the book to retrieve", required = true) 
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        // Polling clients revalidate with If-None-Match, which only needs the version and not the book itself
+        Long version = null;
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            version = bookService.getBookVersion(id);
+            if (request.checkNotModified(ETags.of(version))) {
+                return null;
+            }
+        }
         BookResponseDTO book = bookService.getBookById(id);
-        return ResponseEntity.ok(book);
+        // A read racing an eviction can cache the old book again; the poll would get it back until it expires
+        if (version != null && !version.equals(book.getVersion())) {
+            book = bookService.reloadBookById(id);
+        }
+        return ResponseEntity.ok().eTag(ETags.of(book.getVersion())).body(book);
     }
     
     @Operation(
@@ -97,15 +215,84 @@ public class BookController {
         @ApiResponse(responseCode = "404", description = "Book or borrower not found", 
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
         @ApiResponse(responseCode = "409", description = "Book is already borrowed", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "412", description = "Book has changed since the entity tag in If-Match", 
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PutMapping("/{id}/borrow")
     public ResponseEntity<BookResponseDTO> borrowBook(
             @Parameter(description = "ID of the book to borrow", required = true) 
             @PathVariable Long id, 
+            @Parameter(description = "Entity tags of the book as last read; the borrow only happens if one of them is still current") 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Parameter(description = "Borrower information", required = true) 
+            @Valid @RequestBody BookBorrowRequestDTO borrowRequest) {
+        BookResponseDTO borrowedBook = bookService.borrowBook(id, borrowRequest, ETags.expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(borrowedBook.getVersion())).body(borrowedBook);
+    }
+    
+    @Operation(
+        summary = "Get the availability of an ISBN", 
+        description = "Returns how many copies of the ISBN the library has and how many of them can be borrowed. " +
+                "The ISBN may be given as ISBN-10 or ISBN-13."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Availability retrieved successfully", 
+                    content = @Content(schema = @Schema(implementation = IsbnAvailabilityDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid ISBN", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "No book with this ISBN", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/isbn/{isbn}/availability")
+    public ResponseEntity<IsbnAvailabilityDTO> getAvailability(
+            @Parameter(description = "ISBN to look up", required = true) 
+            @PathVariable String isbn) {
+        IsbnAvailabilityDTO availability = bookService.getAvailability(isbn);
+        return ResponseEntity.ok(availability);
+    }
+    
+    @Operation(
+        summary = "Get the availability of several ISBNs", 
+        description = "Returns the copies and available copies of every listed ISBN, in request order. " +
+                "An ISBN the library does not have is reported with zero copies."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Availability retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid ISBN or too many ISBNs", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/isbn/availability")
+    public ResponseEntity<List<IsbnAvailabilityDTO>> getAvailabilities(
+            @Parameter(description = "ISBNs to look up, as a repeated parameter or comma-separated in one", required = true, 
+                    example = "9780547928227,0132350882") 
+            @RequestParam("isbn") List<String> isbns) {
+        List<IsbnAvailabilityDTO> availabilities = bookService.getAvailability(isbns);
+        return ResponseEntity.ok(availabilities);
+    }
+    
+    @Operation(
+        summary = "Borrow any copy of an ISBN", 
+        description = "Marks any available copy of the ISBN as borrowed by the borrower and returns that copy. " +
+                "The ISBN may be given as ISBN-10 or ISBN-13."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "A copy was borrowed successfully", 
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input or ISBN", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "No book with this ISBN or borrower not found", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "409", description = "All copies of the ISBN are borrowed", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping("/isbn/{isbn}/borrow")
+    public ResponseEntity<BookResponseDTO> borrowBookByIsbn(
+            @Parameter(description = "ISBN of the book to borrow", required = true) 
+            @PathVariable String isbn, 
             @Parameter(description = "Borrower information", required = true) 
             @Valid @RequestBody BookBorrowRequestDTO borrowRequest) {
-        BookResponseDTO borrowedBook = bookService.borrowBook(id, borrowRequest);
+        BookResponseDTO borrowedBook = bookService.borrowBookByIsbn(isbn, borrowRequest);
         return ResponseEntity.ok(borrowedBook);
     }
     
@@ -117,13 +304,59 @@ public class BookController {
         @ApiResponse(responseCode = "200", description = "Book returned successfully", 
                     content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
         @ApiResponse(responseCode = "404", description = "Book not found or not currently borrowed", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "412", description = "Book has changed since the entity tag in If-Match", 
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PutMapping("/{id}/return")
     public ResponseEntity<BookResponseDTO> returnBook(
             @Parameter(description = "ID of the book to return", required = true) 
-            @PathVariable Long id) {
-        BookResponseDTO returnedBook = bookService.returnBook(id);
-        return ResponseEntity.ok(returnedBook);
+            @PathVariable Long id,
+            @Parameter(description = "Entity tags of the book as last read; the return only happens if one of them is still current") 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BookResponseDTO returnedBook = bookService.returnBook(id, ETags.expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(returnedBook.getVersion())).body(returnedBook);
+    }
+    
+    @Operation(
+        summary = "Borrow several books", 
+        description = "Checks out all listed books to one borrower in a single request, for example at a self-service desk. " +
+                      "Every book that is available is borrowed; the others are reported per item with the reason."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the per-item results", 
+                    content = @Content(schema = @Schema(implementation = BookLoanBatchResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input or too many books", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Borrower not found", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping("/batch/borrow")
+    public ResponseEntity<BookLoanBatchResponseDTO> borrowBooks(
+            @Parameter(description = "Borrower and books to check out", required = true) 
+            @Valid @RequestBody BookLoanBatchRequestDTO request) {
+        BookLoanBatchResponseDTO result = bookService.borrowBooks(request);
+        return ResponseEntity.ok(result);
+    }
+    
+    @Operation(
+        summary = "Return several books", 
+        description = "Checks in all listed books of one borrower in a single request. " +
+                      "Every book the borrower holds is returned; the others are reported per item with the reason."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Batch processed, see the per-item results", 
+                    content = @Content(schema = @Schema(implementation = BookLoanBatchResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input or too many books", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Borrower not found", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping("/batch/return")
+    public ResponseEntity<BookLoanBatchResponseDTO> returnBooks(
+            @Parameter(description = "Borrower and books to check in", required = true) 
+            @Valid @RequestBody BookLoanBatchRequestDTO request) {
+        BookLoanBatchResponseDTO result = bookService.returnBooks(request);
+        return ResponseEntity.ok(result);
     }
 }
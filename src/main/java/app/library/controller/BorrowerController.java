@@ -1,7 +1,8 @@
 package app.library.controller;
 
-import java.util.List;
+import java.io.InputStream;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,11 +10,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.BorrowerImportResponseDTO;
 import app.library.model.dto.BorrowerRequestDTO;
 import app.library.model.dto.BorrowerResponseDTO;
+import app.library.model.dto.CursorPageResponseDTO;
 import app.library.model.dto.ErrorResponse;
+import app.library.service.BookService;
 import app.library.service.BorrowerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -32,6 +39,7 @@ import lombok.RequiredArgsConstructor;
 public class BorrowerController {
     
     private final BorrowerService borrowerService;
+    private final BookService bookService;
     
     @Operation(
         summary = "Register a new borrower", 
@@ -53,15 +61,39 @@ public class BorrowerController {
         return new ResponseEntity<>(createdBorrower, HttpStatus.CREATED);
     }
     
+    @Operation(
+        summary = "Import borrowers from CSV", 
+        description = "Registers borrowers from a CSV upload with one 'name,email' line per borrower and an optional header. " +
+                      "Lines whose email is already registered, or repeated in the file, are skipped as duplicates; " +
+                      "invalid lines are rejected and reported."
+    )
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "CSV file with name,email lines", required = true,
+            content = @Content(mediaType = "text/csv", schema = @Schema(type = "string", example = "name,email\nJohn Doe,john.doe@example.com")))
+    @ApiResponse(responseCode = "200", description = "Import finished, see the counts and rejected lines", 
+                content = @Content(schema = @Schema(implementation = BorrowerImportResponseDTO.class)))
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<BorrowerImportResponseDTO> importBorrowers(InputStream csv) {
+        BorrowerImportResponseDTO result = borrowerService.importBorrowers(csv);
+        return ResponseEntity.ok(result);
+    }
+    
     @Operation(
         summary = "Get all borrowers", 
-        description = "Retrieves all borrowers registered in the library"
+        description = "Retrieves borrowers in ascending id order, one page at a time. Pass the returned nextCursor to get the next page."
     )
-    @ApiResponse(responseCode = "200", description = "Borrowers retrieved successfully", 
-                content = @Content(schema = @Schema(implementation = BorrowerResponseDTO.class)))
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Borrowers retrieved successfully", 
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
     @GetMapping
-    public ResponseEntity<List<BorrowerResponseDTO>> getAllBorrowers() {
-        List<BorrowerResponseDTO> borrowers = borrowerService.getAllBorrowers();
+    public ResponseEntity<CursorPageResponseDTO<BorrowerResponseDTO>> getAllBorrowers(
+            @Parameter(description = "Cursor returned by the previous page, omit for the first page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of borrowers per page, capped by the server", example = "20") 
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponseDTO<BorrowerResponseDTO> borrowers = borrowerService.getAllBorrowers(cursor, size);
         return ResponseEntity.ok(borrowers);
     }
     
@@ -72,14 +104,52 @@ public class BorrowerController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Borrower retrieved successfully", 
                     content = @Content(schema = @Schema(implementation = BorrowerResponseDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Borrower has not changed since the entity tag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Borrower not found", 
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{id}")
     public ResponseEntity<BorrowerResponseDTO> getBorrowerById(
             @Parameter(description = "ID of the borrower to retrieve", required = true) 
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        Long version = null;
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            version = borrowerService.getBorrowerVersion(id);
+            if (request.checkNotModified(ETags.of(version))) {
+                return null;
+            }
+        }
         BorrowerResponseDTO borrower = borrowerService.getBorrowerById(id);
-        return ResponseEntity.ok(borrower);
+        // Same as BookController.getBookById: replace a cached borrower older than the version just read
+        if (version != null && !version.equals(borrower.getVersion())) {
+            borrower = borrowerService.reloadBorrowerById(id);
+        }
+        return ResponseEntity.ok().eTag(ETags.of(borrower.getVersion())).body(borrower);
+    }
+    
+    @Operation(
+        summary = "Get the books a borrower has", 
+        description = "Retrieves the books the borrower currently has out, in ascending id order, one page at a time. " +
+                      "Pass the returned nextCursor to get the next page."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Books retrieved successfully", 
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Borrower not found", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{id}/books")
+    public ResponseEntity<CursorPageResponseDTO<BookResponseDTO>> getBorrowedBooks(
+            @Parameter(description = "ID of the borrower", required = true) 
+            @PathVariable Long id,
+            @Parameter(description = "Cursor returned by the previous page, omit for the first page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of books per page, capped by the server", example = "20") 
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponseDTO<BookResponseDTO> books = bookService.getBooksBorrowedBy(id, cursor, size);
+        return ResponseEntity.ok(books);
     }
-} 
\ No newline at end of file
+}
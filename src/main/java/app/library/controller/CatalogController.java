@@ -0,0 +1,123 @@
+package app.library.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.BorrowerResponseDTO;
+import app.library.model.dto.ErrorResponse;
+import app.library.service.CatalogService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/catalog")
+@RequiredArgsConstructor
+@Tag(name = "Catalog", description = "Non-blocking read-only APIs for books and borrowers")
+public class CatalogController {
+    
+    private final CatalogService catalogService;
+    
+    @Operation(
+        summary = "Stream books", 
+        description = "Streams books in ascending id order as newline-delimited JSON, as fast as the client reads them. " +
+                      "Pass the id of the last book received as afterId to resume."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Books streamed successfully", 
+                    content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = BookResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid limit", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/books", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookResponseDTO> streamBooks(
+            @Parameter(description = "Only books with a greater id are returned, omit to start from the first book") 
+            @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Maximum number of books, omit to stream to the end", example = "100") 
+            @RequestParam(required = false) Long limit) {
+        return catalogService.getBooks(afterId, limit);
+    }
+    
+    @Operation(
+        summary = "Get a book by ID", 
+        description = "Retrieves a specific book by its ID"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Book retrieved successfully", 
+                    content = @Content(schema = @Schema(implementation = BookResponseDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Book not found", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/books/{id}")
+    public Mono<BookResponseDTO> getBook(
+            @Parameter(description = "ID of the book to retrieve", required = true) 
+            @PathVariable Long id) {
+        return catalogService.getBook(id);
+    }
+    
+    @Operation(
+        summary = "Stream the copies of an ISBN", 
+        description = "Streams every copy of the ISBN, whether registered as ISBN-10 or ISBN-13, as newline-delimited JSON"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Copies streamed successfully", 
+                    content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = BookResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid ISBN", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/books/isbn/{isbn}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BookResponseDTO> streamBooksByIsbn(
+            @Parameter(description = "ISBN-10 or ISBN-13, with or without separators", required = true) 
+            @PathVariable String isbn) {
+        return catalogService.getBooksByIsbn(isbn);
+    }
+    
+    @Operation(
+        summary = "Stream borrowers", 
+        description = "Streams borrowers in ascending id order as newline-delimited JSON, as fast as the client reads them. " +
+                      "Pass the id of the last borrower received as afterId to resume."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Borrowers streamed successfully", 
+                    content = @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = BorrowerResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid limit", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/borrowers", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BorrowerResponseDTO> streamBorrowers(
+            @Parameter(description = "Only borrowers with a greater id are returned, omit to start from the first borrower") 
+            @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Maximum number of borrowers, omit to stream to the end", example = "100") 
+            @RequestParam(required = false) Long limit) {
+        return catalogService.getBorrowers(afterId, limit);
+    }
+    
+    @Operation(
+        summary = "Get a borrower by ID", 
+        description = "Retrieves a specific borrower by their ID"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Borrower retrieved successfully", 
+                    content = @Content(schema = @Schema(implementation = BorrowerResponseDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Borrower not found", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/borrowers/{id}")
+    public Mono<BorrowerResponseDTO> getBorrower(
+            @Parameter(description = "ID of the borrower to retrieve", required = true) 
+            @PathVariable Long id) {
+        return catalogService.getBorrower(id);
+    }
+}
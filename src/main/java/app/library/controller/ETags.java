@@ -0,0 +1,83 @@
+package app.library.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import app.library.exception.InvalidRequestException;
+import app.library.exception.PreconditionFailedException;
+
+/**
+ * Strong entity tags derived from the {@code version} column of books and borrowers.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Reads the versions expected by an {@code If-Match} header, a comma-separated list of entity tags any of which
+     * may match, or {@code null} when there is no header or it is {@code *}, which only asks for the resource to
+     * exist. Weak tags and tags that are not one of ours can never match under the strong comparison If-Match
+     * requires, so a list of only those fails the precondition right away.
+     */
+    static List<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        int length = ifMatch.length();
+        int i = skipSeparators(ifMatch, 0);
+        while (i < length) {
+            boolean weak = ifMatch.startsWith("W/", i);
+            int open = weak ? i + 2 : i;
+            int close = open < length && ifMatch.charAt(open) == '"' ? ifMatch.indexOf('"', open + 1) : -1;
+            if (close < 0) {
+                throw new InvalidRequestException("If-Match must be * or a list of quoted entity tags");
+            }
+            if (!weak) {
+                Long version = version(ifMatch.substring(open + 1, close));
+                if (version != null) {
+                    versions.add(version);
+                }
+            }
+            i = skipWhitespace(ifMatch, close + 1);
+            if (i < length && ifMatch.charAt(i) != ',') {
+                throw new InvalidRequestException("If-Match must be * or a list of quoted entity tags");
+            }
+            i = skipSeparators(ifMatch, i);
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("If-Match " + ifMatch.trim() + " does not match the current entity tag");
+        }
+        return versions;
+    }
+
+    private static Long version(String tag) {
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int skipWhitespace(String header, int from) {
+        int i = from;
+        while (i < header.length() && (header.charAt(i) == ' ' || header.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    // Empty list elements are allowed and skipped, as HTTP lists permit
+    private static int skipSeparators(String header, int from) {
+        int i = from;
+        while (i < header.length() && (header.charAt(i) == ',' || header.charAt(i) == ' ' || header.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+}
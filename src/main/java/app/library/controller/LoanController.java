@@ -0,0 +1,80 @@
+package app.library.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.library.model.dto.CursorPageResponseDTO;
+import app.library.model.dto.ErrorResponse;
+import app.library.model.dto.LoanResponseDTO;
+import app.library.service.LoanService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Tag(name = "Loans", description = "Loan history APIs")
+public class LoanController {
+    
+    private final LoanService loanService;
+    
+    @Operation(
+        summary = "Get the loan history of a book", 
+        description = "Retrieves every checkout and return of the book, oldest first, one page at a time. " +
+                      "Pass the returned nextCursor to get the next page."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Loan history retrieved successfully", 
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Book not found", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/books/{id}/loans")
+    public ResponseEntity<CursorPageResponseDTO<LoanResponseDTO>> getLoansOfBook(
+            @Parameter(description = "ID of the book", required = true) 
+            @PathVariable Long id,
+            @Parameter(description = "Cursor returned by the previous page, omit for the first page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of events per page, capped by the server", example = "20") 
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponseDTO<LoanResponseDTO> loans = loanService.getLoansOfBook(id, cursor, size);
+        return ResponseEntity.ok(loans);
+    }
+    
+    @Operation(
+        summary = "Get the loan history of a borrower", 
+        description = "Retrieves every checkout and return by the borrower, oldest first, one page at a time. " +
+                      "Pass the returned nextCursor to get the next page."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Loan history retrieved successfully", 
+                    content = @Content(schema = @Schema(implementation = CursorPageResponseDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Borrower not found", 
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/borrowers/{id}/loans")
+    public ResponseEntity<CursorPageResponseDTO<LoanResponseDTO>> getLoansOfBorrower(
+            @Parameter(description = "ID of the borrower", required = true) 
+            @PathVariable Long id,
+            @Parameter(description = "Cursor returned by the previous page, omit for the first page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of events per page, capped by the server", example = "20") 
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponseDTO<LoanResponseDTO> loans = loanService.getLoansOfBorrower(id, cursor, size);
+        return ResponseEntity.ok(loans);
+    }
+}
@@ -0,0 +1,10 @@
+package app.library.event;
+
+import app.library.model.dto.BookResponseDTO;
+
+/**
+ * Published by the book service whenever a book is created or its loan state changes,
+ * carrying the state of the book as written by that change.
+ */
+public record BookChangedEvent(BookResponseDTO book) {
+}
@@ -0,0 +1,19 @@
+package app.library.event;
+
+import java.util.Set;
+
+/**
+ * Published by the cache invalidation listener when books were changed by any instance, this one included,
+ * once the change is committed. Carries only their ids: the state has to be read again from the database.
+ * {@code all} means that changes may have been missed, so that any state kept in memory has to be read again.
+ */
+public record BooksInvalidatedEvent(Set<Long> bookIds, boolean all) {
+
+    public static BooksInvalidatedEvent of(Set<Long> bookIds) {
+        return new BooksInvalidatedEvent(bookIds, false);
+    }
+
+    public static BooksInvalidatedEvent everything() {
+        return new BooksInvalidatedEvent(Set.of(), true);
+    }
+}
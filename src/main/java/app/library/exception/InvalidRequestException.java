@@ -0,0 +1,14 @@
+package app.library.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRequestException extends RuntimeException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
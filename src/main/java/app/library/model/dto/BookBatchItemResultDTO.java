@@ -0,0 +1,39 @@
+package app.library.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a single book in a bulk creation request")
+public class BookBatchItemResultDTO {
+
+    @Schema(description = "Position of the book in the request, starting at 0", example = "0")
+    private int index;
+
+    @Schema(description = "Whether the book was created or rejected", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "The created book, if the item was created", nullable = true)
+    private BookResponseDTO book;
+
+    @Schema(description = "Reason the item was rejected", nullable = true,
+            example = "A book with ISBN 9780547928227 already exists but with different title or author")
+    private String error;
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    public static BookBatchItemResultDTO created(int index, BookResponseDTO book) {
+        return new BookBatchItemResultDTO(index, Status.CREATED, book, null);
+    }
+
+    public static BookBatchItemResultDTO rejected(int index, String error) {
+        return new BookBatchItemResultDTO(index, Status.REJECTED, null, error);
+    }
+}
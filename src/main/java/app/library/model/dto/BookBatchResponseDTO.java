@@ -0,0 +1,24 @@
+package app.library.model.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a bulk book creation request")
+public class BookBatchResponseDTO {
+
+    @Schema(description = "Number of books created", example = "998")
+    private int created;
+
+    @Schema(description = "Number of books rejected", example = "2")
+    private int rejected;
+
+    @Schema(description = "Per-item results, in request order")
+    private List<BookBatchItemResultDTO> items;
+}
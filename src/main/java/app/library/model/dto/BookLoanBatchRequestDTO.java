@@ -0,0 +1,29 @@
+package app.library.model.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+@Schema(description = "Books checked out or checked in together by one borrower")
+public class BookLoanBatchRequestDTO {
+
+    @Schema(
+        description = "ID of the borrower checking the books out or in", 
+        example = "1", 
+        required = true
+    )
+    @NotNull(message = "Borrower ID is required")
+    private Long borrowerId;
+
+    @Schema(
+        description = "IDs of the books, each listed once", 
+        example = "[12, 57, 310]", 
+        required = true
+    )
+    @NotEmpty(message = "At least one book ID is required")
+    private List<@NotNull(message = "Book ID is required") Long> bookIds;
+}
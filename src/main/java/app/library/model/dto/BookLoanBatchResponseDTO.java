@@ -0,0 +1,24 @@
+package app.library.model.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a batch checkout or check-in")
+public class BookLoanBatchResponseDTO {
+
+    @Schema(description = "Number of books checked out or checked in", example = "4")
+    private int done;
+
+    @Schema(description = "Number of books rejected", example = "1")
+    private int rejected;
+
+    @Schema(description = "Per-item results, in request order")
+    private List<BookLoanItemResultDTO> items;
+}
@@ -0,0 +1,38 @@
+package app.library.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a single book in a batch checkout or check-in")
+public class BookLoanItemResultDTO {
+
+    @Schema(description = "ID of the book, as given in the request", example = "12")
+    private Long bookId;
+
+    @Schema(description = "Whether the book was checked out (or in) or rejected", example = "DONE")
+    private Status status;
+
+    @Schema(description = "The book after the checkout or check-in, if it succeeded", nullable = true)
+    private BookResponseDTO book;
+
+    @Schema(description = "Reason the item was rejected", nullable = true, example = "Book is already borrowed")
+    private String error;
+
+    public enum Status {
+        DONE,
+        REJECTED
+    }
+
+    public static BookLoanItemResultDTO done(BookResponseDTO book) {
+        return new BookLoanItemResultDTO(book.getId(), Status.DONE, book, null);
+    }
+
+    public static BookLoanItemResultDTO rejected(Long bookId, String error) {
+        return new BookLoanItemResultDTO(bookId, Status.REJECTED, null, error);
+    }
+}
@@ -2,10 +2,14 @@ package app.library.model.dto;
 
 import java.time.Instant;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @Schema(description = "Book data returned from API operations")
 public class BookResponseDTO {
     @Schema(description = "Unique identifier of the book", example = "1")
@@ -34,4 +38,28 @@ public class BookResponseDTO {
     
     @Schema(description = "Timestamp when the book was added to the system", example = "2023-05-01T09:15:00Z")
     private Instant createdAt;
-} 
\ No newline at end of file
+    
+    // Row version, sent as the ETag header rather than in the body; null where it was not read
+    @JsonIgnore
+    private Long version;
+    
+    public BookResponseDTO(Long id, String title, String author, String isbn,
+            Long borrowerId, String borrowerName, Instant borrowedAt, Instant createdAt) {
+        this(id, title, author, isbn, borrowerId, borrowerName, borrowedAt, createdAt, null);
+    }
+    
+    // Used by the JPQL constructor expressions in BookRepository, which select straight into this DTO
+    public BookResponseDTO(Long id, String title, String author, String isbn,
+            Long borrowerId, String borrowerName, Instant borrowedAt, Instant createdAt, Long version) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+        this.borrowed = borrowerId != null;
+        this.borrowerId = borrowerId;
+        this.borrowerName = borrowerName;
+        this.borrowedAt = borrowedAt;
+        this.createdAt = createdAt;
+        this.version = version;
+    }
+}
@@ -0,0 +1,22 @@
+package app.library.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A CSV line that was not imported")
+public class BorrowerImportRejectionDTO {
+
+    @Schema(description = "Line number in the uploaded file, starting at 1", example = "42")
+    private long lineNumber;
+
+    @Schema(description = "The rejected line as it was uploaded", example = "John Doe,not-an-email")
+    private String line;
+
+    @Schema(description = "Reason the line was rejected", example = "email: Email should be valid")
+    private String error;
+}
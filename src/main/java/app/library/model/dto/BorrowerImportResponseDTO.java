@@ -0,0 +1,28 @@
+package app.library.model.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Result of a bulk borrower import")
+public class BorrowerImportResponseDTO {
+
+    @Schema(description = "Number of borrowers registered", example = "99500")
+    private long inserted;
+
+    @Schema(description = "Number of valid lines skipped because the email is already registered or repeated in the file",
+            example = "480")
+    private long duplicates;
+
+    @Schema(description = "Number of lines rejected as malformed or invalid", example = "20")
+    private long rejected;
+
+    @Schema(description = "The rejected lines, up to the configured reporting limit")
+    private List<BorrowerImportRejectionDTO> rejectedLines;
+}
@@ -2,10 +2,16 @@ package app.library.model.dto;
 
 import java.time.Instant;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @Schema(description = "Borrower data returned from API operations")
 public class BorrowerResponseDTO {
     @Schema(description = "Unique identifier of the borrower", example = "1")
@@ -19,4 +25,8 @@ public class BorrowerResponseDTO {
     
     @Schema(description = "Timestamp when the borrower was registered", example = "2023-05-01T09:15:00Z")
     private Instant createdAt;
+    
+    // Row version, sent as the ETag header rather than in the body
+    @JsonIgnore
+    private Long version;
 } 
\ No newline at end of file
@@ -0,0 +1,25 @@
+package app.library.model.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A page of results with an opaque cursor to continue from")
+public class CursorPageResponseDTO<T> {
+
+    @Schema(description = "Items in this page, in a stable order")
+    private List<T> items;
+
+    @Schema(description = "Opaque cursor to pass as 'cursor' to fetch the next page, null on the last page",
+            example = "AAAAAAAAABQ", nullable = true)
+    private String nextCursor;
+
+    @Schema(description = "Flag indicating if more items are available after this page", example = "true")
+    private boolean hasMore;
+}
@@ -0,0 +1,22 @@
+package app.library.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Copies of an ISBN and how many of them can be borrowed")
+public class IsbnAvailabilityDTO {
+
+    @Schema(description = "ISBN as given in the request", example = "978-0-13-235088-4")
+    private String isbn;
+
+    @Schema(description = "Number of copies of the ISBN", example = "5")
+    private int totalCopies;
+
+    @Schema(description = "Number of copies that are not borrowed", example = "2")
+    private int availableCopies;
+}
@@ -0,0 +1,26 @@
+package app.library.model.dto;
+
+import java.time.Instant;
+
+import app.library.model.entity.Loan;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "A checkout or return of a book")
+public class LoanResponseDTO {
+    @Schema(description = "Unique identifier of the event", example = "1")
+    private Long id;
+    
+    @Schema(description = "ID of the book", example = "1")
+    private Long bookId;
+    
+    @Schema(description = "ID of the borrower who borrowed or returned the book", example = "1")
+    private Long borrowerId;
+    
+    @Schema(description = "Whether the book was borrowed or returned", example = "BORROWED")
+    private Loan.Event event;
+    
+    @Schema(description = "Timestamp of the checkout or return", example = "2023-05-15T14:30:00Z")
+    private Instant occurredAt;
+}
@@ -2,44 +2,70 @@ package app.library.model.entity;
 
 import java.time.Instant;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import app.library.validation.ISBN;
+import app.library.validation.ISBNParser;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
+// Read-write second-level cache; borrows and returns bypass Hibernate, so BookCacheListener evicts
+// the book from it once they are committed
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
 @Data
 public class Book {
 
+    // Pooled sequence so Hibernate can assign ids up front and batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_id_generator")
+    @SequenceGenerator(name = "book_id_generator", sequenceName = "book_id_seq", allocationSize = 50)
     private Long id;
 
-    @NotBlank
-    private String title;
-
-    @NotBlank
-    private String author;
-
     @NotBlank
     @ISBN
     private String isbn;
 
-    // The borrower who currently has this book, null if not borrowed
-    @ManyToOne
+    // Canonical ISBN-13 of isbn, the key for every ISBN lookup and the reference to the title; derived on insert
+    private Long isbn13;
+
+    // Title and author, shared by all copies of the ISBN. Read-only, through isbn13 above: the title is
+    // registered before its first copy is inserted. Lazy, like the borrower, as read paths join it instead
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "isbn13", insertable = false, updatable = false)
+    private Title work;
+
+    // The borrower who currently has this book, null if not borrowed. Lazy: read paths project the
+    // borrower's id and name with a join instead (see BookRepository.SELECT_BOOK_DTO)
+    @ManyToOne(fetch = FetchType.LAZY)
     private Borrower borrower;
 
     private Instant borrowedAt;
     
     private Instant createdAt;
 
+    // Strong ETag of the book; the borrow and return statements in BookRepositoryCustomImpl increment it too
+    @Version
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         createdAt = Instant.now();
+        // An invalid ISBN is left to bean validation, which rejects it before the insert
+        long parsed = ISBNParser.toIsbn13(isbn);
+        isbn13 = parsed == ISBNParser.INVALID ? null : parsed;
     }
 }
@@ -2,21 +2,32 @@ package app.library.model.entity;
 
 import java.time.Instant;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
+// Borrowers are hardly ever changed after registration, which suits a non-strict second-level cache
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "borrower")
 @Data
 public class Borrower {
 
+    // Pooled sequence so Hibernate can assign ids up front and batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "borrower_id_generator")
+    @SequenceGenerator(name = "borrower_id_generator", sequenceName = "borrower_id_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -28,6 +39,10 @@ public class Borrower {
 
     private Instant createdAt;
 
+    // Strong ETag of the borrower
+    @Version
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         createdAt = Instant.now();
@@ -0,0 +1,23 @@
+package app.library.model.entity;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+// Copies of one ISBN and how many are on the shelf. Rows are only changed by delta updates in the
+// statements that create, borrow and return books (see IsbnAvailabilityRepositoryCustomImpl and
+// BookRepositoryCustomImpl), never through Hibernate.
+@Entity
+@Immutable
+@Data
+public class IsbnAvailability {
+
+    @Id
+    private Long isbn13;
+
+    private int totalCopies;
+
+    private int availableCopies;
+}
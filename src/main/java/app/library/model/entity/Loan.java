@@ -0,0 +1,36 @@
+package app.library.model.entity;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import lombok.Data;
+
+// One checkout or return of a book. Rows are written by the borrow and return statements
+// themselves (see BookRepositoryCustomImpl) and are never changed afterwards.
+@Entity
+@Immutable
+@Data
+public class Loan {
+
+    @Id
+    private Long id;
+
+    private Long bookId;
+
+    private Long borrowerId;
+
+    @Enumerated(EnumType.STRING)
+    private Event event;
+
+    private Instant occurredAt;
+
+    public enum Event {
+        BORROWED,
+        RETURNED
+    }
+}
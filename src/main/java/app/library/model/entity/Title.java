@@ -0,0 +1,27 @@
+package app.library.model.entity;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Title and author of an ISBN, shared by all of its copies. Registered with the first copy (see
+// TitleRepositoryCustom) and never changed afterwards.
+@Entity
+@Immutable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Title {
+
+    // Canonical ISBN-13, the same key as Book.isbn13
+    @Id
+    private Long isbn13;
+
+    private String title;
+
+    private String author;
+}
@@ -1,19 +1,117 @@
 package app.library.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import app.library.model.dto.BookResponseDTO;
 import app.library.model.entity.Book;
+import app.library.validation.ISBNParser;
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
-    List<Book> findByIsbn(String isbn);
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
+    // Read paths select straight into the response DTO with explicit joins on the title and the borrower, so
+    // no entity is hydrated or tracked by the persistence context and neither costs a second query
+    String SELECT_BOOK_DTO = "select new app.library.model.dto.BookResponseDTO(" +
+            "b.id, w.title, w.author, b.isbn, br.id, br.name, b.borrowedAt, b.createdAt, b.version) " +
+            "from Book b join b.work w left join b.borrower br ";
     
+    List<Book> findByIsbn13(long isbn13);
+    
+    // ISBNs are compared by their canonical ISBN-13, so any spelling of the same ISBN matches
+    default List<Book> findByIsbn(String isbn) {
+        long isbn13 = ISBNParser.toIsbn13(isbn);
+        return isbn13 == ISBNParser.INVALID ? List.of() : findByIsbn13(isbn13);
+    }
+    
+    // Substring matches are written as lower(column) LIKE so they can use the trigram indexes on title from V11
+    @Query("select b from Book b join b.work w where lower(w.title) like lower(concat('%', :#{escape(#title)}, '%')) escape :#{escapeCharacter()}")
     List<Book> findByTitleContainingIgnoreCase(String title);
     
+    @Query("select b from Book b join b.work w where lower(w.author) like lower(concat('%', :#{escape(#author)}, '%')) escape :#{escapeCharacter()}")
     List<Book> findByAuthorContainingIgnoreCase(String author);
     
-    boolean existsByIsbnAndTitleAndAuthor(String isbn, String title, String author);
-} 
\ No newline at end of file
+    // Keyset pages of the substring searches above
+    @Query(SELECT_BOOK_DTO + "where lower(w.title) like lower(concat('%', :#{escape(#title)}, '%')) escape :#{escapeCharacter()} " +
+           "and b.id > :afterId order by b.id")
+    List<BookResponseDTO> searchByTitle(String title, Long afterId, Limit limit);
+    
+    @Query(SELECT_BOOK_DTO + "where lower(w.author) like lower(concat('%', :#{escape(#author)}, '%')) escape :#{escapeCharacter()} " +
+           "and b.id > :afterId order by b.id")
+    List<BookResponseDTO> searchByAuthor(String author, Long afterId, Limit limit);
+    
+    @Query(SELECT_BOOK_DTO + "where lower(w.title) like lower(concat('%', :#{escape(#title)}, '%')) escape :#{escapeCharacter()} " +
+           "and lower(w.author) like lower(concat('%', :#{escape(#author)}, '%')) escape :#{escapeCharacter()} " +
+           "and b.id > :afterId order by b.id")
+    List<BookResponseDTO> searchByTitleAndAuthor(String title, String author, Long afterId, Limit limit);
+    
+    // Keyset page of one of the searches above, in its own read-only transaction so the plan setting applies
+    @Transactional(readOnly = true)
+    default List<BookResponseDTO> search(String title, String author, Long afterId, Limit limit) {
+        useCustomPlansInTransaction();
+        if (author == null) {
+            return searchByTitle(title, afterId, limit);
+        }
+        if (title == null) {
+            return searchByAuthor(author, afterId, limit);
+        }
+        return searchByTitleAndAuthor(title, author, afterId, limit);
+    }
+    
+    // Keyset page of the copies of one ISBN
+    @Query(SELECT_BOOK_DTO + "where b.isbn13 = :isbn13 and b.id > :afterId order by b.id")
+    List<BookResponseDTO> findDtosByIsbn13(long isbn13, Long afterId, Limit limit);
+    
+    boolean existsByIsbn13AndWorkTitleAndWorkAuthor(long isbn13, String title, String author);
+    
+    default boolean existsByIsbnAndTitleAndAuthor(String isbn, String title, String author) {
+        long isbn13 = ISBNParser.toIsbn13(isbn);
+        return isbn13 != ISBNParser.INVALID && existsByIsbn13AndWorkTitleAndWorkAuthor(isbn13, title, author);
+    }
+    
+    @Query(SELECT_BOOK_DTO + "where b.id = :id")
+    Optional<BookResponseDTO> findDtoById(Long id);
+    
+    @Query(SELECT_BOOK_DTO + "where b.id in :ids")
+    List<BookResponseDTO> findDtosByIdIn(Collection<Long> ids);
+    
+    // Answers conditional requests from the primary key index, without reading the borrower
+    @Query("select b.version from Book b where b.id = :id")
+    Optional<Long> findVersionById(Long id);
+    
+    // Keyset page: rows after the given id
+    @Query(SELECT_BOOK_DTO + "where b.id > :afterId order by b.id")
+    List<BookResponseDTO> findDtosByIdGreaterThan(Long afterId, Limit limit);
+    
+    // Keyset page of the books a borrower currently has, served by the partial index from V8
+    @Query(SELECT_BOOK_DTO + "where b.borrower.id = :borrowerId and b.id > :afterId order by b.id")
+    List<BookResponseDTO> findDtosByBorrowerId(Long borrowerId, Long afterId, Limit limit);
+    
+    // Whole catalog in id order, read through a server-side cursor; must be consumed inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_BOOK_DTO + "order by b.id")
+    Stream<BookResponseDTO> streamAllOrderedById();
+    
+    // Who holds each of the given books, used to explain why a batch checkout or check-in skipped them
+    @Query("select b.id as id, b.borrower.id as borrowerId from Book b where b.id in :ids")
+    List<BookLoan> findLoansByIdIn(Collection<Long> ids);
+    
+    interface BookLoan {
+        Long getId();
+        
+        Long getBorrowerId();
+    }
+}
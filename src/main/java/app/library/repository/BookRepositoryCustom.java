@@ -0,0 +1,57 @@
+package app.library.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import app.library.model.entity.Book;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Makes PostgreSQL plan the following statements of the current transaction with their actual
+     * parameter values. Substring searches need this: a cached generic plan cannot tell a rare term
+     * (use the trigram index) from a common one (walk the primary key) and may pick the wrong one.
+     */
+    void useCustomPlansInTransaction();
+
+    // The borrow and return methods below also append the change to the loan history and update the available
+    // copies in isbn_availability, in the same statement, and increment the version of every book they change
+
+    /**
+     * Lends the book to the borrower with a single conditional update, which only matches while the
+     * book is not borrowed, the borrower exists and, unless {@code expectedVersions} is null, the book is
+     * still at one of those versions. Returns the updated book, detached and with the borrower's id and name
+     * filled in, or empty when nothing matched.
+     */
+    Optional<Book> borrowIfAvailable(long bookId, long borrowerId, Collection<Long> expectedVersions, Instant borrowedAt);
+
+    /**
+     * Lends any available copy of the ISBN to the borrower with a single statement. The copy is claimed
+     * with {@code FOR UPDATE SKIP LOCKED}, so concurrent callers each get a different copy instead of
+     * queueing on the same row. Returns the updated book as {@link #borrowIfAvailable} does, or empty
+     * when no copy was free or the borrower does not exist.
+     */
+    Optional<Book> borrowAnyAvailable(long isbn13, long borrowerId, Instant borrowedAt);
+
+    /**
+     * Lends every listed book that is not borrowed to the borrower with a single update. Returns the
+     * updated books, detached as in {@link #borrowIfAvailable}; listed books that are missing or
+     * borrowed, or all of them when the borrower does not exist, are left out.
+     */
+    List<Book> borrowAllAvailable(long borrowerId, Collection<Long> bookIds, Instant borrowedAt);
+
+    /**
+     * Clears the borrower of the book with a single conditional update, which only matches while the
+     * book is borrowed and, unless {@code expectedVersions} is null, still at one of those versions. Returns the
+     * updated book, detached, or empty when nothing matched.
+     */
+    Optional<Book> returnIfBorrowed(long bookId, Collection<Long> expectedVersions, Instant returnedAt);
+
+    /**
+     * Clears the borrower of every listed book that is borrowed by this borrower with a single update.
+     * Returns the updated books, detached; the other listed books are left out.
+     */
+    List<Book> returnAllBorrowedBy(long borrowerId, Collection<Long> bookIds, Instant returnedAt);
+}
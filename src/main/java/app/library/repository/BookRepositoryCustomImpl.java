@@ -0,0 +1,176 @@
+package app.library.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import app.library.model.entity.Book;
+import app.library.model.entity.Borrower;
+import app.library.model.entity.Loan;
+import app.library.model.entity.Title;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    // Columns returned by the updates below, in the shape BOOK_ROW_MAPPER reads; each update joins the
+    // title of the book as t
+    private static final String RETURNED_COLUMNS =
+            "b.id, t.title, t.author, b.isbn, b.isbn13, b.created_at, b.borrowed_at, b.version";
+
+    // Borrows also return who took the book and when, for the loan history
+    private static final String BORROWED_COLUMNS = RETURNED_COLUMNS +
+            ", br.id AS borrower_id, br.name AS borrower_name, br.id AS loan_borrower_id, b.borrowed_at AS loan_at";
+
+    // Returns read the previous borrower from the row they locked, since RETURNING only sees the new values
+    private static final String RETURNED_BOOK_COLUMNS = RETURNED_COLUMNS +
+            ", NULL::BIGINT AS borrower_id, NULL AS borrower_name, held.borrower_id AS loan_borrower_id, " +
+            "CAST(? AS TIMESTAMP) AS loan_at";
+
+    private static final RowMapper<Book> BOOK_ROW_MAPPER = BookRepositoryCustomImpl::mapBook;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void useCustomPlansInTransaction() {
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_custom_plan");
+    }
+
+    @Override
+    public Optional<Book> borrowIfAvailable(long bookId, long borrowerId, Collection<Long> expectedVersions,
+            Instant borrowedAt) {
+        // Joining the borrower makes a missing borrower match nothing, like a borrowed book does. Null
+        // expected versions match any version.
+        return jdbcTemplate.query(recordingLoans(
+                "UPDATE book b SET borrower_id = br.id, borrowed_at = ?, version = b.version + 1 FROM borrower br, title t " +
+                "WHERE b.id = ? AND b.borrower_id IS NULL AND (? OR b.version = ANY(?)) " +
+                "AND br.id = ? AND t.isbn13 = b.isbn13 " +
+                "RETURNING " + BORROWED_COLUMNS, Loan.Event.BORROWED, false),
+                BOOK_ROW_MAPPER, utc(borrowedAt), bookId, expectedVersions == null, versions(expectedVersions), borrowerId)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public Optional<Book> borrowAnyAvailable(long isbn13, long borrowerId, Instant borrowedAt) {
+        // Copies locked by other borrowers are skipped rather than waited for; the lock taken here
+        // only lasts for this statement
+        return jdbcTemplate.query(recordingLoans(
+                "WITH copy AS (" +
+                "SELECT id FROM book WHERE isbn13 = ? AND borrower_id IS NULL " +
+                "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+                "UPDATE book b SET borrower_id = br.id, borrowed_at = ?, version = b.version + 1 FROM copy, borrower br, title t " +
+                "WHERE b.id = copy.id AND br.id = ? AND t.isbn13 = b.isbn13 " +
+                "RETURNING " + BORROWED_COLUMNS, Loan.Event.BORROWED, false),
+                BOOK_ROW_MAPPER, isbn13, utc(borrowedAt), borrowerId)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Book> borrowAllAvailable(long borrowerId, Collection<Long> bookIds, Instant borrowedAt) {
+        return jdbcTemplate.query(recordingLoans(
+                "UPDATE book b SET borrower_id = br.id, borrowed_at = ?, version = b.version + 1 FROM borrower br, title t " +
+                "WHERE b.id = ANY(?) AND b.borrower_id IS NULL AND br.id = ? AND t.isbn13 = b.isbn13 " +
+                "RETURNING " + BORROWED_COLUMNS, Loan.Event.BORROWED, true),
+                BOOK_ROW_MAPPER, utc(borrowedAt), ids(bookIds), borrowerId);
+    }
+
+    @Override
+    public Optional<Book> returnIfBorrowed(long bookId, Collection<Long> expectedVersions, Instant returnedAt) {
+        return jdbcTemplate.query(recordingLoans(
+                "UPDATE book b SET borrower_id = NULL, borrowed_at = NULL, version = b.version + 1 " +
+                "FROM (SELECT id, borrower_id FROM book WHERE id = ? AND borrower_id IS NOT NULL " +
+                "AND (? OR version = ANY(?)) FOR UPDATE) held, title t " +
+                "WHERE b.id = held.id AND t.isbn13 = b.isbn13 " +
+                "RETURNING " + RETURNED_BOOK_COLUMNS, Loan.Event.RETURNED, false),
+                BOOK_ROW_MAPPER, bookId, expectedVersions == null, versions(expectedVersions), utc(returnedAt))
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Book> returnAllBorrowedBy(long borrowerId, Collection<Long> bookIds, Instant returnedAt) {
+        return jdbcTemplate.query(recordingLoans(
+                "UPDATE book b SET borrower_id = NULL, borrowed_at = NULL, version = b.version + 1 " +
+                "FROM (SELECT id, borrower_id FROM book WHERE id = ANY(?) AND borrower_id = ? FOR UPDATE) held, title t " +
+                "WHERE b.id = held.id AND t.isbn13 = b.isbn13 " +
+                "RETURNING " + RETURNED_BOOK_COLUMNS, Loan.Event.RETURNED, true),
+                BOOK_ROW_MAPPER, ids(bookIds), borrowerId, utc(returnedAt));
+    }
+
+    /**
+     * Wraps a borrow or return update so that the same statement also appends one loan row per
+     * changed book, taken from its loan_borrower_id and loan_at columns, and moves the changed copies
+     * off or back onto the shelf in isbn_availability. Neither can then disagree with the book table,
+     * and keeping them costs no extra round trip.
+     * <p>
+     * A batch can change copies of several ISBNs, so its isbn_availability rows are locked in isbn13 order
+     * first: the update alone would take them in the order of the grouping, which differs between statements,
+     * and two batches sharing ISBNs could then each hold a row the other one waits for. A single book has one
+     * row to lock and is spared the extra step.
+     */
+    private static String recordingLoans(String update, Loan.Event event, boolean batch) {
+        String delta = event == Loan.Event.BORROWED ? "-" : "+";
+        String locked = batch
+                ? "locked AS (SELECT isbn13 FROM isbn_availability WHERE isbn13 IN (SELECT isbn13 FROM changed) " +
+                  "ORDER BY isbn13 FOR UPDATE), "
+                : "";
+        String lockedJoin = batch ? ", locked l WHERE l.isbn13 = c.isbn13 AND " : " WHERE ";
+        return "WITH changed AS (" + update + "), " +
+                "recorded AS (INSERT INTO loan (book_id, borrower_id, event, occurred_at) " +
+                "SELECT id, loan_borrower_id, '" + event.name() + "', loan_at FROM changed), " +
+                locked +
+                "counted AS (UPDATE isbn_availability a SET available_copies = a.available_copies " + delta + " c.copies " +
+                "FROM (SELECT isbn13, count(*) AS copies FROM changed GROUP BY isbn13) c" + lockedJoin +
+                "a.isbn13 = c.isbn13) " +
+                "SELECT * FROM changed";
+    }
+
+    private static Book mapBook(ResultSet rs, int rowNum) throws SQLException {
+        Book book = new Book();
+        book.setId(rs.getLong("id"));
+        book.setIsbn(rs.getString("isbn"));
+        book.setIsbn13(rs.getLong("isbn13"));
+        book.setWork(new Title(book.getIsbn13(), rs.getString("title"), rs.getString("author")));
+        book.setCreatedAt(instant(rs, "created_at"));
+        book.setBorrowedAt(instant(rs, "borrowed_at"));
+        book.setVersion(rs.getLong("version"));
+        long borrowerId = rs.getLong("borrower_id");
+        if (!rs.wasNull()) {
+            Borrower borrower = new Borrower();
+            borrower.setId(borrowerId);
+            borrower.setName(rs.getString("borrower_name"));
+            book.setBorrower(borrower);
+        }
+        return book;
+    }
+
+    // Bound as a single bigint[] parameter, so the statement text is the same for any number of ids
+    private static long[] ids(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // Bound as an empty array rather than a null one when any version matches, which needs no type to bind
+    private static long[] versions(Collection<Long> versions) {
+        return versions == null ? new long[0] : ids(versions);
+    }
+
+    // Instants are bound and read as UTC offset date-times, the same way Hibernate maps them
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.toInstant();
+    }
+}
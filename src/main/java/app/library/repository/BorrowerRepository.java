@@ -1,14 +1,32 @@
 package app.library.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import app.library.model.dto.BorrowerResponseDTO;
 import app.library.model.entity.Borrower;
 
 @Repository
-public interface BorrowerRepository extends JpaRepository<Borrower, Long> {
+public interface BorrowerRepository extends JpaRepository<Borrower, Long>, BorrowerRepositoryCustom {
     Optional<Borrower> findByEmail(String email);
     boolean existsByEmail(String email);
+    
+    // Read paths select straight into the response DTO, without hydrating or tracking entities
+    String SELECT_BORROWER_DTO = "select new app.library.model.dto.BorrowerResponseDTO(" +
+            "br.id, br.name, br.email, br.createdAt, br.version) from Borrower br ";
+    
+    @Query(SELECT_BORROWER_DTO + "where br.id = :id")
+    Optional<BorrowerResponseDTO> findDtoById(Long id);
+    
+    @Query("select br.version from Borrower br where br.id = :id")
+    Optional<Long> findVersionById(Long id);
+    
+    // Keyset page: rows after the given id
+    @Query(SELECT_BORROWER_DTO + "where br.id > :afterId order by br.id")
+    List<BorrowerResponseDTO> findDtosByIdGreaterThan(Long afterId, Limit limit);
 } 
\ No newline at end of file
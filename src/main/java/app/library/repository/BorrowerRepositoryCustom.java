@@ -0,0 +1,18 @@
+package app.library.repository;
+
+import java.util.Iterator;
+
+public interface BorrowerRepositoryCustom {
+
+    /**
+     * Streams the rows into a transaction-scoped staging table with COPY and inserts the ones whose
+     * email is not registered yet in a single statement. Must run inside a transaction.
+     */
+    StagedImportResult copyInIgnoringExistingEmails(Iterator<StagedBorrower> borrowers);
+
+    record StagedBorrower(long lineNumber, String name, String email) {
+    }
+
+    record StagedImportResult(long staged, long inserted) {
+    }
+}
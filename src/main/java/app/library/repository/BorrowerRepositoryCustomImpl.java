@@ -0,0 +1,100 @@
+package app.library.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class BorrowerRepositoryCustomImpl implements BorrowerRepositoryCustom {
+
+    private static final String CREATE_STAGING_TABLE =
+            "CREATE TEMP TABLE borrower_import (line_no BIGINT NOT NULL, name TEXT NOT NULL, email TEXT NOT NULL) " +
+            "ON COMMIT DROP";
+
+    private static final String COPY_INTO_STAGING =
+            "COPY borrower_import (line_no, name, email) FROM STDIN WITH (FORMAT csv)";
+
+    // The first line of the file wins when it repeats an email; existing emails are left untouched
+    private static final String MERGE_INTO_BORROWER =
+            "INSERT INTO borrower (name, email, created_at) " +
+            "SELECT DISTINCT ON (email) name, email, now() FROM borrower_import ORDER BY email, line_no " +
+            "ON CONFLICT (email) DO NOTHING";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public StagedImportResult copyInIgnoringExistingEmails(Iterator<StagedBorrower> borrowers) {
+        return jdbcTemplate.execute((ConnectionCallback<StagedImportResult>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_TABLE);
+            }
+            
+            long staged = copyIn(connection, borrowers);
+            
+            try (Statement statement = connection.createStatement()) {
+                long inserted = statement.executeUpdate(MERGE_INTO_BORROWER);
+                return new StagedImportResult(staged, inserted);
+            }
+        });
+    }
+
+    private long copyIn(Connection connection, Iterator<StagedBorrower> borrowers) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_INTO_STAGING);
+        try {
+            long staged = 0;
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+            while (borrowers.hasNext()) {
+                StagedBorrower borrower = borrowers.next();
+                buffer.append(borrower.lineNumber()).append(',');
+                appendQuoted(buffer, borrower.name());
+                buffer.append(',');
+                appendQuoted(buffer, borrower.email());
+                buffer.append('\n');
+                staged++;
+                
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copyIn, buffer);
+                }
+            }
+            writeToCopy(copyIn, buffer);
+            copyIn.endCopy();
+            return staged;
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static void appendQuoted(StringBuilder buffer, String value) {
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append('"');
+            }
+            buffer.append(c);
+        }
+        buffer.append('"');
+    }
+}
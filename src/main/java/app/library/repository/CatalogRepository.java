@@ -0,0 +1,105 @@
+package app.library.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.BorrowerResponseDTO;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only queries of the catalog API over R2DBC. They select the same columns as the DTO
+ * projections of {@link BookRepository} and {@link BorrowerRepository}, without blocking a thread
+ * while PostgreSQL works.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogRepository {
+
+    // Rows are fetched from a server-side portal in chunks of this size as the subscriber requests them,
+    // so a slow client holds back the query instead of filling memory
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_BOOK =
+            "SELECT b.id, t.title, t.author, b.isbn, br.id AS borrower_id, br.name AS borrower_name, " +
+            "b.borrowed_at, b.created_at, b.version FROM book b JOIN title t ON t.isbn13 = b.isbn13 " +
+            "LEFT JOIN borrower br ON br.id = b.borrower_id ";
+
+    private static final String SELECT_BORROWER = "SELECT id, name, email, created_at, version FROM borrower ";
+
+    private final DatabaseClient catalogDatabaseClient;
+
+    public Mono<BookResponseDTO> findBookById(long id) {
+        return catalogDatabaseClient.sql(SELECT_BOOK + "WHERE b.id = :id")
+                .bind("id", id)
+                .map(CatalogRepository::mapBook)
+                .one();
+    }
+
+    public Flux<BookResponseDTO> findBooksAfter(long afterId, long limit) {
+        return catalogDatabaseClient.sql(SELECT_BOOK + "WHERE b.id > :afterId ORDER BY b.id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(CatalogRepository::mapBook)
+                .all();
+    }
+
+    public Flux<BookResponseDTO> findBooksByIsbn13(long isbn13) {
+        return catalogDatabaseClient.sql(SELECT_BOOK + "WHERE b.isbn13 = :isbn13 ORDER BY b.id")
+                .bind("isbn13", isbn13)
+                .map(CatalogRepository::mapBook)
+                .all();
+    }
+
+    public Mono<BorrowerResponseDTO> findBorrowerById(long id) {
+        return catalogDatabaseClient.sql(SELECT_BORROWER + "WHERE id = :id")
+                .bind("id", id)
+                .map(CatalogRepository::mapBorrower)
+                .one();
+    }
+
+    public Flux<BorrowerResponseDTO> findBorrowersAfter(long afterId, long limit) {
+        return catalogDatabaseClient.sql(SELECT_BORROWER + "WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(CatalogRepository::mapBorrower)
+                .all();
+    }
+
+    private static BookResponseDTO mapBook(Readable row) {
+        return new BookResponseDTO(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("author", String.class),
+                row.get("isbn", String.class),
+                row.get("borrower_id", Long.class),
+                row.get("borrower_name", String.class),
+                instant(row, "borrowed_at"),
+                instant(row, "created_at"),
+                row.get("version", Long.class));
+    }
+
+    private static BorrowerResponseDTO mapBorrower(Readable row) {
+        return new BorrowerResponseDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("email", String.class),
+                instant(row, "created_at"),
+                row.get("version", Long.class));
+    }
+
+    // Timestamps are stored as UTC, the same way Hibernate maps instants
+    private static Instant instant(Readable row, String column) {
+        LocalDateTime value = row.get(column, LocalDateTime.class);
+        return value == null ? null : value.toInstant(ZoneOffset.UTC);
+    }
+}
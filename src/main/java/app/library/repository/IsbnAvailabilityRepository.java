@@ -0,0 +1,11 @@
+package app.library.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import app.library.model.entity.IsbnAvailability;
+
+// Keyed by the canonical ISBN-13, so findById and findAllById answer availability from the primary key
+@Repository
+public interface IsbnAvailabilityRepository extends JpaRepository<IsbnAvailability, Long>, IsbnAvailabilityRepositoryCustom {
+}
@@ -0,0 +1,12 @@
+package app.library.repository;
+
+import java.util.Map;
+
+public interface IsbnAvailabilityRepositoryCustom {
+
+    /**
+     * Counts new copies, all of them on the shelf, with a single upsert that adds to the totals of the
+     * ISBNs already known and creates the others. Must run in the transaction that inserts the books.
+     */
+    void addCopies(Map<Long, Integer> copiesByIsbn13);
+}
@@ -0,0 +1,32 @@
+package app.library.repository;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class IsbnAvailabilityRepositoryCustomImpl implements IsbnAvailabilityRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addCopies(Map<Long, Integer> copiesByIsbn13) {
+        if (copiesByIsbn13.isEmpty()) {
+            return;
+        }
+        // Rows are locked in ISBN order, so two batches sharing ISBNs cannot deadlock on them
+        Map<Long, Integer> sorted = new TreeMap<>(copiesByIsbn13);
+        long[] isbns = sorted.keySet().stream().mapToLong(Long::longValue).toArray();
+        int[] copies = sorted.values().stream().mapToInt(Integer::intValue).toArray();
+        jdbcTemplate.update(
+                "INSERT INTO isbn_availability (isbn13, total_copies, available_copies) " +
+                "SELECT isbn13, copies, copies FROM unnest(?, ?) AS added(isbn13, copies) ORDER BY isbn13 " +
+                "ON CONFLICT (isbn13) DO UPDATE SET " +
+                "total_copies = isbn_availability.total_copies + EXCLUDED.total_copies, " +
+                "available_copies = isbn_availability.available_copies + EXCLUDED.available_copies",
+                isbns, copies);
+    }
+}
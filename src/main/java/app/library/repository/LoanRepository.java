@@ -0,0 +1,17 @@
+package app.library.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import app.library.model.entity.Loan;
+
+@Repository
+public interface LoanRepository extends JpaRepository<Loan, Long>, LoanRepositoryCustom {
+    // Keyset pages of the history of a book or a borrower, oldest first
+    List<Loan> findByBookIdAndIdGreaterThanOrderByIdAsc(Long bookId, Long afterId, Limit limit);
+    
+    List<Loan> findByBorrowerIdAndIdGreaterThanOrderByIdAsc(Long borrowerId, Long afterId, Limit limit);
+}
@@ -0,0 +1,12 @@
+package app.library.repository;
+
+import java.time.YearMonth;
+
+public interface LoanRepositoryCustom {
+
+    /**
+     * Creates the partition of the loan table that holds the given month (UTC), unless it already
+     * exists. Returns whether it was created.
+     */
+    boolean createMonthlyPartition(YearMonth month);
+}
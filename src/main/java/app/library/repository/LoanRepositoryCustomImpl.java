@@ -0,0 +1,30 @@
+package app.library.repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class LoanRepositoryCustomImpl implements LoanRepositoryCustom {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean createMonthlyPartition(YearMonth month) {
+        // Same naming as the partition created by V7, e.g. loan_2025_06
+        String name = "loan_" + month.format(PARTITION_SUFFIX);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+        if (Boolean.TRUE.equals(exists)) {
+            return false;
+        }
+        // DDL takes no bind parameters; the name and bounds are built from the month only
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF loan " +
+                "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package app.library.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import app.library.model.entity.Title;
+
+@Repository
+public interface TitleRepository extends JpaRepository<Title, Long>, TitleRepositoryCustom {
+}
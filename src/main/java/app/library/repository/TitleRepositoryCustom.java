@@ -0,0 +1,16 @@
+package app.library.repository;
+
+import java.util.Collection;
+import java.util.Set;
+
+import app.library.model.entity.Title;
+
+public interface TitleRepositoryCustom {
+
+    /**
+     * Registers the titles of ISBNs that have none yet with a single insert, leaving registered ones as they
+     * are. Returns the ISBN-13s it registered; any other was registered before, or concurrently, possibly
+     * with a different title and author. Must run in the transaction that inserts the copies.
+     */
+    Set<Long> registerMissing(Collection<Title> titles);
+}
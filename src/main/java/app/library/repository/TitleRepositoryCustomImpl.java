@@ -0,0 +1,37 @@
+package app.library.repository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import app.library.model.entity.Title;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+class TitleRepositoryCustomImpl implements TitleRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<Long> registerMissing(Collection<Title> titles) {
+        if (titles.isEmpty()) {
+            return Set.of();
+        }
+        // Inserted in ISBN order, so two batches registering the same new ISBNs cannot deadlock
+        List<Title> sorted = titles.stream().sorted(Comparator.comparing(Title::getIsbn13)).toList();
+        List<Long> registered = jdbcTemplate.queryForList(
+                "INSERT INTO title (isbn13, title, author) " +
+                "SELECT isbn13, title, author FROM unnest(CAST(? AS BIGINT[]), CAST(? AS TEXT[]), CAST(? AS TEXT[])) " +
+                "AS registered(isbn13, title, author) ORDER BY isbn13 " +
+                "ON CONFLICT (isbn13) DO NOTHING RETURNING isbn13",
+                Long.class,
+                sorted.stream().mapToLong(Title::getIsbn13).toArray(),
+                sorted.stream().map(Title::getTitle).toArray(String[]::new),
+                sorted.stream().map(Title::getAuthor).toArray(String[]::new));
+        return new HashSet<>(registered);
+    }
+}
@@ -0,0 +1,467 @@
+package app.library.search;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import app.library.model.dto.BookResponseDTO;
+import app.library.validation.ISBNParser;
+
+/**
+ * In-memory inverted index over book titles, authors and ISBNs, used to answer catalog
+ * searches without a database round trip.
+ * <p>
+ * Copies of the same ISBN share their title and author, so text is indexed once per
+ * ISBN, title and author combination (a "work") rather than once per copy. Each field maps its terms to a posting list of work
+ * ordinals, and each work keeps the sorted ids of its copies. The per-copy state needed to
+ * render a {@link BookResponseDTO} lives in primitive arrays addressed through a primitive
+ * id map, which keeps the index at a few dozen bytes per copy.
+ * <p>
+ * Query terms are matched as prefixes of the words in a field, so partial words typed at a
+ * kiosk match as the user types. All terms of all given fields must match.
+ * <p>
+ * The index is empty until {@link #beginBuild()} / {@link #finishBuild()} have run; callers
+ * check {@link #isReady()} and fall back to the database until then.
+ */
+@Component
+public class BookSearchIndex {
+
+    enum Field { TITLE, AUTHOR, ISBN }
+
+    private enum State { EMPTY, BUILDING, READY }
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    // A read-write lock rather than synchronized, so readers do not block each other
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Field, NavigableMap<String, IntPostingList>> terms = new EnumMap<>(Field.class);
+    private final Map<Work, Integer> workOrdinals = new HashMap<>();
+
+    private String[] workTitles;
+    private String[] workAuthors;
+    private String[] workIsbns;
+    private long[][] workCopies;
+    private int[] workCopyCounts;
+    private int workCount;
+
+    private LongIntHashMap copySlots;
+    private int[] copyWorks;
+    private long[] copyCreatedAt;
+    private long[] copyBorrowerIds;
+    private long[] copyBorrowedAt;
+    private String[] copyBorrowerNames;
+    private long[] copyVersions;
+    private int copyCount;
+
+    private volatile State state = State.EMPTY;
+    // Ids changed through upsert while the build is running; the build's older row for them is skipped
+    private Set<Long> changedDuringBuild;
+
+    public BookSearchIndex() {
+        reset();
+    }
+
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return copySlots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void beginBuild() {
+        lock.writeLock().lock();
+        try {
+            reset();
+            changedDuringBuild = new HashSet<>();
+            state = State.BUILDING;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a book read by the initial build, unless a newer state was already applied by {@link #upsert}.
+     */
+    public void load(BookResponseDTO book) {
+        lock.writeLock().lock();
+        try {
+            if (state == State.BUILDING && !changedDuringBuild.contains(book.getId())) {
+                apply(book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishBuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = null;
+            state = State.READY;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abandonBuild() {
+        lock.writeLock().lock();
+        try {
+            reset();
+            state = State.EMPTY;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records the committed state of a created, borrowed or returned book, unless the index already
+     * holds the same or a newer version of it. Ignored while the index is empty, since a later build
+     * reads the change from the database.
+     */
+    public void upsert(BookResponseDTO book) {
+        lock.writeLock().lock();
+        try {
+            if (state == State.EMPTY) {
+                return;
+            }
+            if (state == State.BUILDING) {
+                changedDuringBuild.add(book.getId());
+            }
+            apply(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops a deleted book. Ignored while the index is empty, like {@link #upsert}.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if (state == State.EMPTY) {
+                return;
+            }
+            if (state == State.BUILDING) {
+                changedDuringBuild.add(id);
+            }
+            int slot = copySlots.remove(id);
+            if (slot < 0) {
+                return;
+            }
+            int work = copyWorks[slot];
+            long[] copies = workCopies[work];
+            int count = workCopyCounts[work];
+            int position = firstAfter(copies, count, id) - 1;
+            System.arraycopy(copies, position + 1, copies, position, count - position - 1);
+            workCopyCounts[work] = count - 1;
+            // The slot stays unused until the next build; books are rarely deleted
+            copyBorrowerNames[slot] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the copies matching every term of the given fields, in ascending id order after
+     * {@code afterId}, returning at most {@code limit} of them. Null or blank fields are ignored.
+     */
+    public List<BookResponseDTO> search(String title, String author, String isbn, long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet works = matchingWorks(title, author, isbn);
+            return works == null ? List.of() : copiesOf(works, afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet matchingWorks(String title, String author, String isbn) {
+        BitSet matched = null;
+        for (Field field : Field.values()) {
+            String value = field == Field.TITLE ? title : field == Field.AUTHOR ? author : isbn;
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            long isbn13 = field == Field.ISBN ? ISBNParser.toIsbn13(value) : ISBNParser.INVALID;
+            List<String> tokens = isbn13 != ISBNParser.INVALID ? List.of(Long.toString(isbn13)) : tokens(field, value);
+            if (tokens.isEmpty()) {
+                return null;
+            }
+            for (String token : tokens) {
+                BitSet tokenWorks = new BitSet(workCount);
+                // Every term starting with the token: [token, token + '\uffff')
+                for (IntPostingList postings : terms.get(field).subMap(token, true, token + '\uffff', false).values()) {
+                    postings.addTo(tokenWorks);
+                }
+                if (matched == null) {
+                    matched = tokenWorks;
+                } else {
+                    matched.and(tokenWorks);
+                }
+                if (matched.isEmpty()) {
+                    return null;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private List<BookResponseDTO> copiesOf(BitSet works, long afterId, int limit) {
+        // Smallest ids after the cursor across the matched works, kept sorted; each work's copies
+        // are sorted too, so a work is left as soon as its next id cannot make the page
+        long[] ids = new long[limit];
+        int found = 0;
+        for (int work = works.nextSetBit(0); work >= 0; work = works.nextSetBit(work + 1)) {
+            long[] copies = workCopies[work];
+            int count = workCopyCounts[work];
+            for (int i = firstAfter(copies, count, afterId); i < count; i++) {
+                long id = copies[i];
+                if (found == limit && id >= ids[limit - 1]) {
+                    break;
+                }
+                int position = found == limit ? limit - 1 : found++;
+                while (position > 0 && ids[position - 1] > id) {
+                    ids[position] = ids[position - 1];
+                    position--;
+                }
+                ids[position] = id;
+            }
+        }
+
+        List<BookResponseDTO> books = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            books.add(toDto(ids[i], copySlots.get(ids[i])));
+        }
+        return books;
+    }
+
+    private void apply(BookResponseDTO book) {
+        long version = book.getVersion() == null ? NONE : book.getVersion();
+        int slot = copySlots.get(book.getId());
+        if (slot < 0) {
+            slot = addCopy(book.getId(), workFor(book));
+        } else if (version != NONE && version <= copyVersions[slot]) {
+            // Changes are applied after their commits, which can finish in any order: an older state arriving
+            // late, from another request or the re-read of an invalidation, must not overwrite a newer one
+            return;
+        }
+        copyVersions[slot] = version;
+        copyCreatedAt[slot] = toMicros(book.getCreatedAt());
+        copyBorrowerIds[slot] = book.getBorrowerId() == null ? NONE : book.getBorrowerId();
+        copyBorrowedAt[slot] = toMicros(book.getBorrowedAt());
+        copyBorrowerNames[slot] = book.getBorrowerName();
+    }
+
+    private int workFor(BookResponseDTO book) {
+        // Keyed by all three fields rather than trusting that the ISBN decides the title and author
+        Work key = new Work(book.getIsbn(), book.getTitle(), book.getAuthor());
+        Integer existing = workOrdinals.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        int work = workCount++;
+        if (work == workTitles.length) {
+            int capacity = grow(workTitles.length);
+            workTitles = Arrays.copyOf(workTitles, capacity);
+            workAuthors = Arrays.copyOf(workAuthors, capacity);
+            workIsbns = Arrays.copyOf(workIsbns, capacity);
+            workCopies = Arrays.copyOf(workCopies, capacity);
+            workCopyCounts = Arrays.copyOf(workCopyCounts, capacity);
+        }
+        workTitles[work] = book.getTitle();
+        workAuthors[work] = book.getAuthor();
+        workIsbns[work] = book.getIsbn();
+        workCopies[work] = new long[1];
+        workOrdinals.put(key, work);
+
+        index(Field.TITLE, book.getTitle(), work);
+        index(Field.AUTHOR, book.getAuthor(), work);
+        index(Field.ISBN, book.getIsbn(), work);
+        // Also under the canonical ISBN-13, which is what a complete ISBN in a query is turned into
+        long isbn13 = ISBNParser.toIsbn13(book.getIsbn());
+        if (isbn13 != ISBNParser.INVALID) {
+            addTerm(Field.ISBN, Long.toString(isbn13), work);
+        }
+        return work;
+    }
+
+    private void index(Field field, String value, int work) {
+        for (String token : tokens(field, value)) {
+            addTerm(field, token, work);
+        }
+    }
+
+    private void addTerm(Field field, String term, int work) {
+        // Work ordinals only grow, so appending keeps every posting list sorted
+        terms.get(field).computeIfAbsent(term, key -> new IntPostingList()).add(work);
+    }
+
+    private int addCopy(long id, int work) {
+        int slot = copyCount++;
+        if (slot == copyWorks.length) {
+            int capacity = grow(copyWorks.length);
+            copyWorks = Arrays.copyOf(copyWorks, capacity);
+            copyCreatedAt = Arrays.copyOf(copyCreatedAt, capacity);
+            copyBorrowerIds = Arrays.copyOf(copyBorrowerIds, capacity);
+            copyBorrowedAt = Arrays.copyOf(copyBorrowedAt, capacity);
+            copyBorrowerNames = Arrays.copyOf(copyBorrowerNames, capacity);
+            copyVersions = Arrays.copyOf(copyVersions, capacity);
+        }
+        copyWorks[slot] = work;
+        copySlots.put(id, slot);
+
+        // Ids usually arrive in ascending order; pooled sequences on several nodes can interleave them
+        long[] copies = workCopies[work];
+        int count = workCopyCounts[work];
+        int position = firstAfter(copies, count, id);
+        if (count == copies.length) {
+            copies = Arrays.copyOf(copies, grow(copies.length));
+            workCopies[work] = copies;
+        }
+        System.arraycopy(copies, position, copies, position + 1, count - position);
+        copies[position] = id;
+        workCopyCounts[work] = count + 1;
+        return slot;
+    }
+
+    private BookResponseDTO toDto(long id, int slot) {
+        int work = copyWorks[slot];
+        BookResponseDTO dto = new BookResponseDTO();
+        dto.setId(id);
+        dto.setTitle(workTitles[work]);
+        dto.setAuthor(workAuthors[work]);
+        dto.setIsbn(workIsbns[work]);
+        dto.setCreatedAt(toInstant(copyCreatedAt[slot]));
+        dto.setVersion(copyVersions[slot] == NONE ? null : copyVersions[slot]);
+        if (copyBorrowerIds[slot] != NONE) {
+            dto.setBorrowed(true);
+            dto.setBorrowerId(copyBorrowerIds[slot]);
+            dto.setBorrowerName(copyBorrowerNames[slot]);
+            dto.setBorrowedAt(toInstant(copyBorrowedAt[slot]));
+        }
+        return dto;
+    }
+
+    private void reset() {
+        for (Field field : Field.values()) {
+            terms.put(field, new TreeMap<>());
+        }
+        workOrdinals.clear();
+        workTitles = new String[16];
+        workAuthors = new String[16];
+        workIsbns = new String[16];
+        workCopies = new long[16][];
+        workCopyCounts = new int[16];
+        workCount = 0;
+
+        copySlots = new LongIntHashMap(16);
+        copyWorks = new int[16];
+        copyCreatedAt = new long[16];
+        copyBorrowerIds = new long[16];
+        copyBorrowedAt = new long[16];
+        copyBorrowerNames = new String[16];
+        copyVersions = new long[16];
+        copyCount = 0;
+        changedDuringBuild = null;
+    }
+
+    /**
+     * Splits a value into lower-case terms: words of letters and digits for titles and authors,
+     * and the whole ISBN without separators, so "978-0-13" and "978013" find the same books.
+     */
+    static List<String> tokens(Field field, String value) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (field != Field.ISBN && !token.isEmpty()) {
+                tokens.add(token.toString().toLowerCase(Locale.ROOT));
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString().toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    // Index of the first element greater than the given value
+    private static int firstAfter(long[] values, int count, long value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int grow(int capacity) {
+        return capacity + (capacity >> 1) + 1;
+    }
+
+    // Postgres keeps microseconds, rounding the nanoseconds Java produces, so that is all we store
+    private static long toMicros(Instant instant) {
+        return instant == null ? NONE : instant.getEpochSecond() * 1_000_000 + (instant.getNano() + 500) / 1000;
+    }
+
+    private static Instant toInstant(long micros) {
+        return micros == NONE ? null : Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private record Work(String isbn, String title, String author) {
+    }
+
+    /**
+     * Sorted, duplicate-free list of work ordinals.
+     */
+    private static final class IntPostingList {
+        private int[] works = new int[2];
+        private int size;
+
+        void add(int work) {
+            if (size > 0 && works[size - 1] == work) {
+                return;
+            }
+            if (size == works.length) {
+                works = Arrays.copyOf(works, grow(works.length));
+            }
+            works[size++] = work;
+        }
+
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(works[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package app.library.search;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.event.BookChangedEvent;
+import app.library.event.BooksInvalidatedEvent;
+import app.library.model.dto.BookResponseDTO;
+import app.library.service.BookService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the {@link BookSearchIndex} from the database once the application is up, and keeps
+ * it current with the book changes committed afterwards, by this instance or any other.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndexLoader {
+
+    private final BookSearchIndex searchIndex;
+    private final BookService bookService;
+    private final LibraryProperties properties;
+    private final ReentrantLock loading = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        if (!properties.getSearch().isIndexEnabled()) {
+            log.info("Book search index disabled, searches are served by the database");
+            return;
+        }
+        startLoading();
+    }
+
+    // Only after commit, so a rolled back change never reaches the index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        searchIndex.upsert(event.book());
+    }
+
+    // Books changed by any instance, this one included: their committed state is read again, and the ones no
+    // longer found were deleted. When changes may have been missed the whole index is loaded again, searches going
+    // to the database meanwhile.
+    @EventListener
+    public void onBooksInvalidated(BooksInvalidatedEvent event) {
+        if (!properties.getSearch().isIndexEnabled()) {
+            return;
+        }
+        if (event.all()) {
+            startLoading();
+        } else {
+            Set<Long> deleted = new HashSet<>(event.bookIds());
+            for (BookResponseDTO book : bookService.getBooksByIds(event.bookIds())) {
+                searchIndex.upsert(book);
+                deleted.remove(book.getId());
+            }
+            deleted.forEach(searchIndex::remove);
+        }
+    }
+
+    private void startLoading() {
+        // Searches use the database until the load finishes, so it must not hold up startup
+        Thread loader = new Thread(this::load, "book-search-index-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    void load() {
+        // A reload requested while a load is running starts over once that one is finished
+        loading.lock();
+        try {
+            long start = System.nanoTime();
+            searchIndex.beginBuild();
+            try {
+                bookService.exportBooks(searchIndex::load);
+                searchIndex.finishBuild();
+                log.info("Book search index loaded with {} books in {} ms",
+                        searchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException ex) {
+                searchIndex.abandonBuild();
+                log.error("Could not load the book search index, searches are served by the database", ex);
+            }
+        } finally {
+            loading.unlock();
+        }
+    }
+}
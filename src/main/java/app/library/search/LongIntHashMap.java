@@ -0,0 +1,105 @@
+package app.library.search;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code long} keys to non-negative {@code int} values, without boxing.
+ * Not thread-safe; callers guard it with their own lock.
+ */
+final class LongIntHashMap {
+
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+    }
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (values[slot] == MISSING) {
+                return MISSING;
+            }
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+    }
+
+    void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (values[slot] == MISSING) {
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                return;
+            }
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes the key, returning its value or -1 when it was missing. The entries probed past it are shifted
+     * back so that no lookup stops at the gap.
+     */
+    int remove(long key) {
+        int mask = keys.length - 1;
+        int gap = mix(key) & mask;
+        while (values[gap] != MISSING && keys[gap] != key) {
+            gap = (gap + 1) & mask;
+        }
+        int removed = values[gap];
+        if (removed == MISSING) {
+            return MISSING;
+        }
+        for (int slot = (gap + 1) & mask; values[slot] != MISSING; slot = (slot + 1) & mask) {
+            // Moved into the gap unless its home slot lies after the gap, up to where it is now
+            int home = mix(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = MISSING;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != MISSING) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,19 +1,54 @@
 package app.library.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
+import app.library.model.dto.BookBatchResponseDTO;
 import app.library.model.dto.BookBorrowRequestDTO;
+import app.library.model.dto.BookLoanBatchRequestDTO;
+import app.library.model.dto.BookLoanBatchResponseDTO;
 import app.library.model.dto.BookRequestDTO;
 import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.CursorPageResponseDTO;
+import app.library.model.dto.IsbnAvailabilityDTO;
 
 public interface BookService {
     BookResponseDTO createBook(BookRequestDTO bookRequestDTO);
     
-    List<BookResponseDTO> getAllBooks();
+    BookBatchResponseDTO createBooks(List<BookRequestDTO> bookRequestDTOs);
+    
+    CursorPageResponseDTO<BookResponseDTO> getAllBooks(String cursor, Integer size);
     
     BookResponseDTO getBookById(Long id);
     
-    BookResponseDTO borrowBook(Long bookId, BookBorrowRequestDTO borrowRequest);
+    // Reads the book past the cache and caches it again, for a cached book older than its stored version
+    BookResponseDTO reloadBookById(Long id);
+    
+    // The given books as currently stored, in no particular order; ids of books that do not exist are skipped
+    List<BookResponseDTO> getBooksByIds(Collection<Long> ids);
+    
+    long getBookVersion(Long id);
+    
+    CursorPageResponseDTO<BookResponseDTO> getBooksBorrowedBy(Long borrowerId, String cursor, Integer size);
+    
+    CursorPageResponseDTO<BookResponseDTO> searchBooks(String title, String author, String isbn, String cursor, Integer size);
+    
+    void exportBooks(Consumer<BookResponseDTO> sink);
+    
+    IsbnAvailabilityDTO getAvailability(String isbn);
+    
+    // One entry per requested ISBN, in request order; an ISBN without copies has zero of both
+    List<IsbnAvailabilityDTO> getAvailability(List<String> isbns);
+    
+    // Non-null expected versions make the borrow or return fail with 412 once the book is at none of them
+    BookResponseDTO borrowBook(Long bookId, BookBorrowRequestDTO borrowRequest, Collection<Long> expectedVersions);
+    
+    BookResponseDTO borrowBookByIsbn(String isbn, BookBorrowRequestDTO borrowRequest);
+    
+    BookLoanBatchResponseDTO borrowBooks(BookLoanBatchRequestDTO request);
+    
+    BookResponseDTO returnBook(Long bookId, Collection<Long> expectedVersions);
     
-    BookResponseDTO returnBook(Long bookId);
+    BookLoanBatchResponseDTO returnBooks(BookLoanBatchRequestDTO request);
 } 
\ No newline at end of file
@@ -1,14 +1,23 @@
 package app.library.service;
 
-import java.util.List;
+import java.io.InputStream;
 
+import app.library.model.dto.BorrowerImportResponseDTO;
 import app.library.model.dto.BorrowerRequestDTO;
 import app.library.model.dto.BorrowerResponseDTO;
+import app.library.model.dto.CursorPageResponseDTO;
 
 public interface BorrowerService {
     BorrowerResponseDTO createBorrower(BorrowerRequestDTO borrowerRequestDTO);
     
-    List<BorrowerResponseDTO> getAllBorrowers();
+    BorrowerImportResponseDTO importBorrowers(InputStream csv);
+    
+    CursorPageResponseDTO<BorrowerResponseDTO> getAllBorrowers(String cursor, Integer size);
     
     BorrowerResponseDTO getBorrowerById(Long id);
+    
+    // Reads the borrower past the cache and caches it again, for a cached borrower older than its stored version
+    BorrowerResponseDTO reloadBorrowerById(Long id);
+    
+    long getBorrowerVersion(Long id);
 } 
\ No newline at end of file
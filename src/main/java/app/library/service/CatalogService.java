@@ -0,0 +1,18 @@
+package app.library.service;
+
+import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.BorrowerResponseDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface CatalogService {
+    Mono<BookResponseDTO> getBook(Long id);
+    
+    Flux<BookResponseDTO> getBooks(Long afterId, Long limit);
+    
+    Flux<BookResponseDTO> getBooksByIsbn(String isbn);
+    
+    Mono<BorrowerResponseDTO> getBorrower(Long id);
+    
+    Flux<BorrowerResponseDTO> getBorrowers(Long afterId, Long limit);
+}
@@ -0,0 +1,10 @@
+package app.library.service;
+
+import app.library.model.dto.CursorPageResponseDTO;
+import app.library.model.dto.LoanResponseDTO;
+
+public interface LoanService {
+    CursorPageResponseDTO<LoanResponseDTO> getLoansOfBook(Long bookId, String cursor, Integer size);
+    
+    CursorPageResponseDTO<LoanResponseDTO> getLoansOfBorrower(Long borrowerId, String cursor, Integer size);
+}
@@ -0,0 +1,36 @@
+package app.library.service.impl;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import app.library.config.CacheConfig;
+import app.library.event.BookChangedEvent;
+import app.library.model.dto.BookResponseDTO;
+import app.library.model.entity.Book;
+import app.library.service.impl.IsbnTitleLookup.TitleAuthor;
+import app.library.validation.ISBNParser;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps the book caches in line with book changes once they are committed: the changed book is
+ * evicted, from the second-level cache as well, and the ISBN of a new book is registered with its title and author.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCacheListener {
+
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final IsbnTitleLookup isbnTitleLookup;
+
+    // After commit only: evicting any earlier would let a concurrent read cache the old state again
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        BookResponseDTO book = event.book();
+        cacheManager.getCache(CacheConfig.BOOKS).evict(book.getId());
+        entityManagerFactory.getCache().evict(Book.class, book.getId());
+        isbnTitleLookup.register(ISBNParser.toIsbn13(book.getIsbn()), new TitleAuthor(book.getTitle(), book.getAuthor()));
+    }
+}
@@ -1,121 +1,528 @@
 package app.library.service.impl;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.hibernate.Session;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import app.library.config.CacheConfig;
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.config.LibraryConfig.LibraryProperties.BatchProperties;
+import app.library.event.BookChangedEvent;
+import app.library.exception.InvalidRequestException;
+import app.library.exception.PreconditionFailedException;
 import app.library.exception.ResourceAlreadyExistsException;
 import app.library.exception.ResourceNotFoundException;
+import app.library.model.dto.BookBatchItemResultDTO;
+import app.library.model.dto.BookBatchResponseDTO;
 import app.library.model.dto.BookBorrowRequestDTO;
+import app.library.model.dto.BookLoanBatchRequestDTO;
+import app.library.model.dto.BookLoanBatchResponseDTO;
+import app.library.model.dto.BookLoanItemResultDTO;
 import app.library.model.dto.BookRequestDTO;
 import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.CursorPageResponseDTO;
+import app.library.model.dto.IsbnAvailabilityDTO;
 import app.library.model.entity.Book;
-import app.library.model.entity.Borrower;
+import app.library.model.entity.IsbnAvailability;
 import app.library.repository.BookRepository;
 import app.library.repository.BorrowerRepository;
+import app.library.repository.IsbnAvailabilityRepository;
+import app.library.search.BookSearchIndex;
 import app.library.service.BookService;
+import app.library.service.impl.IsbnTitleLookup.TitleAuthor;
+import app.library.validation.ISBNParser;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 
 @Service
+@Timed("library.service")
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
 
     private final BookRepository bookRepository;
+    private final IsbnAvailabilityRepository isbnAvailabilityRepository;
     private final BorrowerRepository borrowerRepository;
+    private final LibraryProperties properties;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final BookSearchIndex searchIndex;
+    private final IsbnTitleLookup isbnTitleLookup;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     @Transactional
     public BookResponseDTO createBook(BookRequestDTO bookRequestDTO) {
-        // Validate that the ISBN and title/author combination are consistent
-        boolean bookExists = bookRepository.existsByIsbnAndTitleAndAuthor(
-                bookRequestDTO.getIsbn(), 
-                bookRequestDTO.getTitle(), 
-                bookRequestDTO.getAuthor());
+        // The first copy of an ISBN registers its title/author, later copies must match it
+        long isbn13 = ISBNParser.toIsbn13(bookRequestDTO.getIsbn());
+        TitleAuthor requested = new TitleAuthor(bookRequestDTO.getTitle(), bookRequestDTO.getAuthor());
+        TitleAuthor registered = isbnTitleLookup.find(isbn13);
+        if (registered == null) {
+            registered = isbnTitleLookup.registerAll(Map.of(isbn13, requested)).get(isbn13);
+        }
+        if (!registered.equals(requested)) {
+            throw new ResourceAlreadyExistsException(
+                    "A book with ISBN " + bookRequestDTO.getIsbn() + 
+                    " already exists but with different title or author");
+        }
+        
+        Book savedBook = bookRepository.save(newBook(bookRequestDTO));
+        isbnAvailabilityRepository.addCopies(Map.of(savedBook.getIsbn13(), 1));
+        return published(convertToDto(savedBook, registered));
+    }
+
+    @Override
+    @Transactional
+    public BookBatchResponseDTO createBooks(List<BookRequestDTO> bookRequestDTOs) {
+        BatchProperties batch = properties.getBatch();
+        if (bookRequestDTOs.size() > batch.getMaxItems()) {
+            throw new InvalidRequestException("A batch may contain at most " + batch.getMaxItems() + " books");
+        }
+        
+        BookBatchItemResultDTO[] results = new BookBatchItemResultDTO[bookRequestDTOs.size()];
         
-        if (!bookExists) {
-            // Check if books with this ISBN exist but with different title/author
-            List<Book> existingBooks = bookRepository.findByIsbn(bookRequestDTO.getIsbn());
-            if (!existingBooks.isEmpty()) {
-                Book existingBook = existingBooks.get(0);
-                if (!existingBook.getTitle().equals(bookRequestDTO.getTitle()) || 
-                    !existingBook.getAuthor().equals(bookRequestDTO.getAuthor())) {
-                    throw new ResourceAlreadyExistsException(
-                            "A book with ISBN " + bookRequestDTO.getIsbn() + 
-                            " already exists but with different title or author");
-                }
+        // Validate each item on its own so a bad entry is reported instead of failing the whole batch
+        Set<Long> isbns = new HashSet<>();
+        for (int i = 0; i < bookRequestDTOs.size(); i++) {
+            String error = validate(bookRequestDTOs.get(i));
+            if (error != null) {
+                results[i] = BookBatchItemResultDTO.rejected(i, error);
+            } else {
+                isbns.add(ISBNParser.toIsbn13(bookRequestDTOs.get(i).getIsbn()));
             }
         }
         
-        Book book = new Book();
-        book.setTitle(bookRequestDTO.getTitle());
-        book.setAuthor(bookRequestDTO.getAuthor());
-        book.setIsbn(bookRequestDTO.getIsbn());
+        // Look up the registered title/author once for all distinct ISBNs in the batch. The first copy of a
+        // new ISBN in the batch defines its title/author for the rest; they are registered with one insert.
+        Map<Long, TitleAuthor> titlesByIsbn = new HashMap<>();
+        if (!isbns.isEmpty()) {
+            titlesByIsbn.putAll(isbnTitleLookup.findAll(isbns));
+        }
+        Map<Long, TitleAuthor> newTitles = new HashMap<>();
+        for (int i = 0; i < bookRequestDTOs.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            BookRequestDTO bookRequestDTO = bookRequestDTOs.get(i);
+            long isbn13 = ISBNParser.toIsbn13(bookRequestDTO.getIsbn());
+            if (!titlesByIsbn.containsKey(isbn13)) {
+                // The first valid request for an unknown ISBN registers its title, as if it had been sent alone
+                newTitles.putIfAbsent(isbn13, new TitleAuthor(bookRequestDTO.getTitle(), bookRequestDTO.getAuthor()));
+            }
+        }
+        if (!newTitles.isEmpty()) {
+            titlesByIsbn.putAll(isbnTitleLookup.registerAll(newTitles));
+        }
+        
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batch.getJdbcBatchSize());
+        List<Book> pendingBooks = new ArrayList<>(batch.getJdbcBatchSize());
+        List<Integer> pendingIndexes = new ArrayList<>(batch.getJdbcBatchSize());
+        for (int i = 0; i < bookRequestDTOs.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            BookRequestDTO bookRequestDTO = bookRequestDTOs.get(i);
+            
+            long isbn13 = ISBNParser.toIsbn13(bookRequestDTO.getIsbn());
+            TitleAuthor requested = new TitleAuthor(bookRequestDTO.getTitle(), bookRequestDTO.getAuthor());
+            if (!titlesByIsbn.get(isbn13).equals(requested)) {
+                results[i] = BookBatchItemResultDTO.rejected(i,
+                        "A book with ISBN " + bookRequestDTO.getIsbn() + 
+                        " already exists but with different title or author");
+                continue;
+            }
+            
+            pendingBooks.add(newBook(bookRequestDTO));
+            pendingIndexes.add(i);
+            
+            if (pendingBooks.size() == batch.getJdbcBatchSize()) {
+                insertChunk(pendingBooks, pendingIndexes, titlesByIsbn, results);
+            }
+        }
+        insertChunk(pendingBooks, pendingIndexes, titlesByIsbn, results);
         
-        Book savedBook = bookRepository.save(book);
-        return convertToDto(savedBook);
+        List<BookBatchItemResultDTO> items = List.of(results);
+        int created = (int) items.stream()
+                .filter(item -> item.getStatus() == BookBatchItemResultDTO.Status.CREATED)
+                .count();
+        return new BookBatchResponseDTO(created, items.size() - created, items);
     }
 
     @Override
-    public List<BookResponseDTO> getAllBooks() {
-        return bookRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPageResponseDTO<BookResponseDTO> getAllBooks(String cursor, Integer size) {
+        long afterId = KeysetCursor.decode(cursor, 0L);
+        int pageSize = KeysetCursor.pageSize(size, properties);
+        List<BookResponseDTO> books = bookRepository.findDtosByIdGreaterThan(afterId, Limit.of(pageSize + 1));
+        return KeysetCursor.toPage(books, pageSize, BookResponseDTO::getId, Function.identity());
     }
 
     @Override
+    public CursorPageResponseDTO<BookResponseDTO> getBooksBorrowedBy(Long borrowerId, String cursor, Integer size) {
+        long afterId = KeysetCursor.decode(cursor, 0L);
+        int pageSize = KeysetCursor.pageSize(size, properties);
+        List<BookResponseDTO> books = bookRepository.findDtosByBorrowerId(borrowerId, afterId, Limit.of(pageSize + 1));
+        // A borrower with nothing out and an unknown id look the same until checked
+        if (books.isEmpty() && afterId == 0L && !borrowerRepository.existsById(borrowerId)) {
+            throw new ResourceNotFoundException("Borrower not found with id: " + borrowerId);
+        }
+        return KeysetCursor.toPage(books, pageSize, BookResponseDTO::getId, Function.identity());
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id")
     public BookResponseDTO getBookById(Long id) {
-        Book book = bookRepository.findById(id)
+        return bookRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
-        return convertToDto(book);
     }
 
     @Override
-    @Transactional
-    public BookResponseDTO borrowBook(Long bookId, BookBorrowRequestDTO borrowRequest) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
-        
-        if (book.getBorrower() != null) {
-            throw new ResourceAlreadyExistsException("Book is already borrowed");
+    @CachePut(cacheNames = CacheConfig.BOOKS, key = "#id")
+    public BookResponseDTO reloadBookById(Long id) {
+        return bookRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+    }
+
+    // In chunks, so that a burst of changed books does not become one huge IN list
+    @Override
+    public List<BookResponseDTO> getBooksByIds(Collection<Long> ids) {
+        List<Long> idList = List.copyOf(ids);
+        int chunkSize = properties.getBatch().getJdbcBatchSize();
+        List<BookResponseDTO> books = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += chunkSize) {
+            books.addAll(bookRepository.findDtosByIdIn(idList.subList(from, Math.min(from + chunkSize, idList.size()))));
+        }
+        return books;
+    }
+
+    // Conditional GETs only need the version, read on its own so that a 304 never builds the DTO or reads the
+    // borrower. Never taken from the cached DTO: a read still running when the book changed can put the old
+    // DTO back after its eviction, and its version would keep answering 304 for a book that has changed.
+    @Override
+    public long getBookVersion(Long id) {
+        return bookRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+    }
+
+    @Override
+    public CursorPageResponseDTO<BookResponseDTO> searchBooks(String title, String author, String isbn,
+            String cursor, Integer size) {
+        String titleTerm = trimToNull(title);
+        String authorTerm = trimToNull(author);
+        String isbnTerm = trimToNull(isbn);
+        if (titleTerm == null && authorTerm == null && isbnTerm == null) {
+            throw new InvalidRequestException("At least one of title, author or isbn is required");
         }
         
-        Borrower borrower = borrowerRepository.findById(borrowRequest.getBorrowerId())
-                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + borrowRequest.getBorrowerId()));
+        long afterId = KeysetCursor.decode(cursor, 0L);
+        int pageSize = KeysetCursor.pageSize(size, properties);
+        if (searchIndex.isReady()) {
+            List<BookResponseDTO> books = searchIndex.search(titleTerm, authorTerm, isbnTerm, afterId, pageSize + 1);
+            return KeysetCursor.toPage(books, pageSize, BookResponseDTO::getId, Function.identity());
+        }
         
-        book.setBorrower(borrower);
-        book.setBorrowedAt(Instant.now());
+        // The index is disabled or still being built
+        Limit limit = Limit.of(pageSize + 1);
+        List<BookResponseDTO> books;
+        if (isbnTerm != null) {
+            long isbn13 = ISBNParser.toIsbn13(isbnTerm);
+            if (isbn13 == ISBNParser.INVALID) {
+                return new CursorPageResponseDTO<>(List.of(), null, false);
+            }
+            // All copies of an ISBN share their title and author, so filtering the page keeps it full or empty
+            books = bookRepository.findDtosByIsbn13(isbn13, afterId, limit).stream()
+                    .filter(book -> containsIgnoreCase(book.getTitle(), titleTerm)
+                            && containsIgnoreCase(book.getAuthor(), authorTerm))
+                    .collect(Collectors.toList());
+        } else {
+            checkTermLength("title", titleTerm);
+            checkTermLength("author", authorTerm);
+            books = bookRepository.search(titleTerm, authorTerm, afterId, limit);
+        }
+        return KeysetCursor.toPage(books, pageSize, BookResponseDTO::getId, Function.identity());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<BookResponseDTO> sink) {
+        // DTOs are not tracked by the persistence context, so heap use does not grow with the catalog
+        try (Stream<BookResponseDTO> books = bookRepository.streamAllOrderedById()) {
+            books.forEach(sink);
+        }
+    }
+
+    @Override
+    public IsbnAvailabilityDTO getAvailability(String isbn) {
+        long isbn13 = ISBNParser.toIsbn13(isbn);
+        if (isbn13 == ISBNParser.INVALID) {
+            throw new InvalidRequestException("Invalid ISBN: " + isbn);
+        }
+        return isbnAvailabilityRepository.findById(isbn13)
+                .map(availability -> toDto(isbn, availability))
+                .orElseThrow(() -> new ResourceNotFoundException("No book found with ISBN: " + isbn));
+    }
+
+    @Override
+    public List<IsbnAvailabilityDTO> getAvailability(List<String> isbns) {
+        int maxItems = properties.getBatch().getMaxItems();
+        if (isbns.size() > maxItems) {
+            throw new InvalidRequestException("A lookup may contain at most " + maxItems + " ISBNs");
+        }
+        List<String> invalid = isbns.stream()
+                .filter(isbn -> ISBNParser.toIsbn13(isbn) == ISBNParser.INVALID)
+                .toList();
+        if (!invalid.isEmpty()) {
+            throw new InvalidRequestException("Invalid ISBN: " + String.join(", ", invalid));
+        }
         
-        Book savedBook = bookRepository.save(book);
-        return convertToDto(savedBook);
+        Set<Long> isbn13s = isbns.stream().map(ISBNParser::toIsbn13).collect(Collectors.toSet());
+        Map<Long, IsbnAvailability> found = isbnAvailabilityRepository.findAllById(isbn13s).stream()
+                .collect(Collectors.toMap(IsbnAvailability::getIsbn13, Function.identity()));
+        return isbns.stream()
+                .map(isbn -> {
+                    IsbnAvailability availability = found.get(ISBNParser.toIsbn13(isbn));
+                    return availability == null ? new IsbnAvailabilityDTO(isbn, 0, 0) : toDto(isbn, availability);
+                })
+                .toList();
+    }
+    
+    private static IsbnAvailabilityDTO toDto(String isbn, IsbnAvailability availability) {
+        return new IsbnAvailabilityDTO(isbn, availability.getTotalCopies(), availability.getAvailableCopies());
     }
 
+    // No surrounding transaction: the conditional update is atomic on its own and, when it succeeds,
+    // the only round trip. The lookups that explain a failure only run when it does not match, and use
+    // findById so that they are answered from the second-level cache when the entity is in it.
     @Override
-    @Transactional
-    public BookResponseDTO returnBook(Long bookId) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + bookId));
+    public BookResponseDTO borrowBook(Long bookId, BookBorrowRequestDTO borrowRequest, Collection<Long> expectedVersions) {
+        Long borrowerId = borrowRequest.getBorrowerId();
+        Book book = bookRepository.borrowIfAvailable(bookId, borrowerId, expectedVersions, Instant.now())
+                .orElseThrow(() -> {
+                    Optional<Book> current = bookRepository.findById(bookId);
+                    if (current.isEmpty()) {
+                        return new ResourceNotFoundException("Book not found with id: " + bookId);
+                    }
+                    if (hasChanged(current.get(), expectedVersions)) {
+                        return bookChanged(bookId, expectedVersions);
+                    }
+                    if (borrowerRepository.findById(borrowerId).isEmpty()) {
+                        return new ResourceNotFoundException("Borrower not found with id: " + borrowerId);
+                    }
+                    return new ResourceAlreadyExistsException("Book is already borrowed");
+                });
+        return published(convertToDto(book));
+    }
+
+    @Override
+    public BookResponseDTO borrowBookByIsbn(String isbn, BookBorrowRequestDTO borrowRequest) {
+        long isbn13 = ISBNParser.toIsbn13(isbn);
+        if (isbn13 == ISBNParser.INVALID) {
+            throw new InvalidRequestException("Invalid ISBN: " + isbn);
+        }
+        Long borrowerId = borrowRequest.getBorrowerId();
+        Book book = bookRepository.borrowAnyAvailable(isbn13, borrowerId, Instant.now())
+                .orElseThrow(() -> {
+                    if (isbnTitleLookup.find(isbn13) == null) {
+                        return new ResourceNotFoundException("No book found with ISBN: " + isbn);
+                    }
+                    if (borrowerRepository.findById(borrowerId).isEmpty()) {
+                        return new ResourceNotFoundException("Borrower not found with id: " + borrowerId);
+                    }
+                    return new ResourceAlreadyExistsException("All copies of ISBN " + isbn + " are borrowed");
+                });
+        return published(convertToDto(book));
+    }
+
+    @Override
+    public BookLoanBatchResponseDTO borrowBooks(BookLoanBatchRequestDTO request) {
+        long borrowerId = request.getBorrowerId();
+        return processLoanBatch(request,
+                bookIds -> bookRepository.borrowAllAvailable(borrowerId, bookIds, Instant.now()),
+                holderId -> "Book is already borrowed");
+    }
+
+    @Override
+    public BookLoanBatchResponseDTO returnBooks(BookLoanBatchRequestDTO request) {
+        long borrowerId = request.getBorrowerId();
+        return processLoanBatch(request,
+                bookIds -> bookRepository.returnAllBorrowedBy(borrowerId, bookIds, Instant.now()),
+                holderId -> holderId == null ? "Book is not currently borrowed" : "Book is borrowed by another borrower");
+    }
+
+    @Override
+    public BookResponseDTO returnBook(Long bookId, Collection<Long> expectedVersions) {
+        Book book = bookRepository.returnIfBorrowed(bookId, expectedVersions, Instant.now())
+                .orElseThrow(() -> {
+                    Optional<Book> current = bookRepository.findById(bookId);
+                    if (current.isEmpty()) {
+                        return new ResourceNotFoundException("Book not found with id: " + bookId);
+                    }
+                    if (hasChanged(current.get(), expectedVersions)) {
+                        return bookChanged(bookId, expectedVersions);
+                    }
+                    return new ResourceNotFoundException("Book is not currently borrowed");
+                });
+        return published(convertToDto(book));
+    }
+    
+    // The work reference is left unset on purpose: Hibernate would check a Title set here for transience with
+    // one extra SELECT per book. The response uses the registered title instead.
+    private static Book newBook(BookRequestDTO bookRequestDTO) {
+        Book book = new Book();
+        book.setIsbn(bookRequestDTO.getIsbn());
+        return book;
+    }
+    
+    private static boolean hasChanged(Book book, Collection<Long> expectedVersions) {
+        return expectedVersions != null && !expectedVersions.contains(book.getVersion());
+    }
+    
+    private static PreconditionFailedException bookChanged(Long bookId, Collection<Long> expectedVersions) {
+        String versions = expectedVersions.stream().map(String::valueOf).collect(Collectors.joining(" or "));
+        return new PreconditionFailedException(
+                "Book " + bookId + " is no longer at version " + versions + ", read it again");
+    }
+    
+    private void insertChunk(List<Book> books, List<Integer> indexes, Map<Long, TitleAuthor> titles,
+                             BookBatchItemResultDTO[] results) {
+        if (books.isEmpty()) {
+            return;
+        }
+        List<Book> savedBooks = bookRepository.saveAll(books);
+        isbnAvailabilityRepository.addCopies(savedBooks.stream()
+                .collect(Collectors.toMap(Book::getIsbn13, book -> 1, Integer::sum)));
+        entityManager.flush();
+        entityManager.clear();
         
-        if (book.getBorrower() == null) {
-            throw new ResourceNotFoundException("Book is not currently borrowed");
+        for (int i = 0; i < savedBooks.size(); i++) {
+            Book savedBook = savedBooks.get(i);
+            int index = indexes.get(i);
+            results[index] = BookBatchItemResultDTO.created(index,
+                    published(convertToDto(savedBook, titles.get(savedBook.getIsbn13()))));
+        }
+        books.clear();
+        indexes.clear();
+    }
+    
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+    
+    private void checkTermLength(String field, String term) {
+        int minTermLength = properties.getSearch().getMinTermLength();
+        if (term != null && term.length() < minTermLength) {
+            throw new InvalidRequestException(
+                    "Search term for " + field + " must be at least " + minTermLength + " characters");
+        }
+    }
+    
+    private static boolean containsIgnoreCase(String value, String term) {
+        return term == null || value.toLowerCase(Locale.ROOT).contains(term.toLowerCase(Locale.ROOT));
+    }
+    
+    private String validate(BookRequestDTO bookRequestDTO) {
+        if (bookRequestDTO == null) {
+            return "Book data is required";
+        }
+        Set<ConstraintViolation<BookRequestDTO>> violations = validator.validate(bookRequestDTO);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    // Applies one set-based update to all distinct books of the request. Like borrowBook, the borrower
+    // and the state of the skipped books are only looked up when the update did not match everything.
+    private BookLoanBatchResponseDTO processLoanBatch(BookLoanBatchRequestDTO request,
+            Function<Set<Long>, List<Book>> update, Function<Long, String> rejectionByHolder) {
+        List<Long> requestedIds = request.getBookIds();
+        int maxItems = properties.getBatch().getMaxItems();
+        if (requestedIds.size() > maxItems) {
+            throw new InvalidRequestException("A batch may contain at most " + maxItems + " books");
         }
         
-        book.setBorrower(null);
-        book.setBorrowedAt(null);
+        Set<Long> bookIds = new LinkedHashSet<>(requestedIds);
+        List<Book> updated = update.apply(bookIds);
+        if (updated.isEmpty() && !borrowerRepository.existsById(request.getBorrowerId())) {
+            throw new ResourceNotFoundException("Borrower not found with id: " + request.getBorrowerId());
+        }
         
-        Book savedBook = bookRepository.save(book);
-        return convertToDto(savedBook);
+        Map<Long, BookResponseDTO> updatedById = new HashMap<>();
+        for (Book book : updated) {
+            updatedById.put(book.getId(), published(convertToDto(book)));
+        }
+        // Holder of each skipped book; the value is null for a book nobody holds, the key is absent for an unknown id
+        Map<Long, Long> holders = new HashMap<>();
+        if (updatedById.size() < bookIds.size()) {
+            Set<Long> skipped = new HashSet<>(bookIds);
+            skipped.removeAll(updatedById.keySet());
+            for (BookRepository.BookLoan loan : bookRepository.findLoansByIdIn(skipped)) {
+                holders.put(loan.getId(), loan.getBorrowerId());
+            }
+        }
+        
+        List<BookLoanItemResultDTO> items = new ArrayList<>(requestedIds.size());
+        Set<Long> reported = new HashSet<>();
+        for (Long bookId : requestedIds) {
+            if (!reported.add(bookId)) {
+                items.add(BookLoanItemResultDTO.rejected(bookId, "Book is listed more than once"));
+            } else if (updatedById.containsKey(bookId)) {
+                items.add(BookLoanItemResultDTO.done(updatedById.get(bookId)));
+            } else if (!holders.containsKey(bookId)) {
+                items.add(BookLoanItemResultDTO.rejected(bookId, "Book not found with id: " + bookId));
+            } else {
+                items.add(BookLoanItemResultDTO.rejected(bookId, rejectionByHolder.apply(holders.get(bookId))));
+            }
+        }
+        return new BookLoanBatchResponseDTO(updatedById.size(), items.size() - updatedById.size(), items);
+    }
+    
+    private BookResponseDTO published(BookResponseDTO book) {
+        eventPublisher.publishEvent(new BookChangedEvent(book));
+        return book;
+    }
+    
+    // Package-private and static for DtoMappingBenchmark
+    static BookResponseDTO convertToDto(Book book) {
+        return convertToDto(book, book.getWork().getTitle(), book.getWork().getAuthor());
+    }
+    
+    private static BookResponseDTO convertToDto(Book book, TitleAuthor title) {
+        return convertToDto(book, title.title(), title.author());
     }
     
-    private BookResponseDTO convertToDto(Book book) {
+    private static BookResponseDTO convertToDto(Book book, String title, String author) {
         BookResponseDTO dto = new BookResponseDTO();
         dto.setId(book.getId());
-        dto.setTitle(book.getTitle());
-        dto.setAuthor(book.getAuthor());
+        dto.setTitle(title);
+        dto.setAuthor(author);
         dto.setIsbn(book.getIsbn());
         dto.setCreatedAt(book.getCreatedAt());
+        dto.setVersion(book.getVersion());
         
         if (book.getBorrower() != null) {
             dto.setBorrowed(true);
@@ -128,4 +535,4 @@ public class BookServiceImpl implements BookService {
         
         return dto;
     }
-} 
\ No newline at end of file
+}
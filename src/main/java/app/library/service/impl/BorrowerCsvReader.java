@@ -0,0 +1,150 @@
+package app.library.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import app.library.model.dto.BorrowerImportRejectionDTO;
+import app.library.model.dto.BorrowerRequestDTO;
+import app.library.repository.BorrowerRepositoryCustom.StagedBorrower;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Reads {@code name,email} CSV lines one at a time and yields the valid ones.
+ * <p>
+ * Lines that cannot be parsed or fail the same validation as {@code POST /api/borrowers}
+ * are counted as rejected; only the first {@code maxReportedRejections} of them are kept
+ * so a bad file cannot fill the heap. An optional {@code name,email} header line is skipped.
+ */
+class BorrowerCsvReader implements Iterator<StagedBorrower> {
+
+    private final BufferedReader reader;
+    private final Validator validator;
+    private final int maxReportedRejections;
+
+    private final List<BorrowerImportRejectionDTO> rejections = new ArrayList<>();
+    private long rejectedCount;
+    private long lineNumber;
+    private StagedBorrower next;
+
+    BorrowerCsvReader(BufferedReader reader, Validator validator, int maxReportedRejections) {
+        this.reader = reader;
+        this.validator = validator;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public StagedBorrower next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        StagedBorrower borrower = next;
+        next = null;
+        return borrower;
+    }
+
+    long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    List<BorrowerImportRejectionDTO> getRejections() {
+        return rejections;
+    }
+
+    private StagedBorrower readNext() {
+        String line;
+        while ((line = readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && line.trim().equalsIgnoreCase("name,email"))) {
+                continue;
+            }
+            
+            List<String> fields = parseFields(line);
+            if (fields == null || fields.size() != 2) {
+                reject(line, "Expected 2 fields: name,email");
+                continue;
+            }
+            
+            BorrowerRequestDTO borrower = new BorrowerRequestDTO();
+            borrower.setName(fields.get(0).trim());
+            borrower.setEmail(fields.get(1).trim());
+            Set<ConstraintViolation<BorrowerRequestDTO>> violations = validator.validate(borrower);
+            if (!violations.isEmpty()) {
+                reject(line, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            return new StagedBorrower(lineNumber, borrower.getName(), borrower.getEmail());
+        }
+        return null;
+    }
+
+    private String readLine() {
+        try {
+            return reader.readLine();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void reject(String line, String error) {
+        rejectedCount++;
+        if (rejections.size() < maxReportedRejections) {
+            rejections.add(new BorrowerImportRejectionDTO(lineNumber, line, error));
+        }
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields with {@code ""} escapes.
+     * Returns null for an unterminated quote; quoted line breaks are not supported.
+     */
+    static List<String> parseFields(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -1,25 +1,42 @@
 package app.library.service.impl;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import app.library.config.CacheConfig;
+import app.library.config.LibraryConfig.LibraryProperties;
 import app.library.exception.ResourceAlreadyExistsException;
 import app.library.exception.ResourceNotFoundException;
+import app.library.model.dto.BorrowerImportResponseDTO;
 import app.library.model.dto.BorrowerRequestDTO;
 import app.library.model.dto.BorrowerResponseDTO;
+import app.library.model.dto.CursorPageResponseDTO;
 import app.library.model.entity.Borrower;
 import app.library.repository.BorrowerRepository;
+import app.library.repository.BorrowerRepositoryCustom.StagedImportResult;
 import app.library.service.BorrowerService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 
 @Service
+@Timed("library.service")
 @RequiredArgsConstructor
 public class BorrowerServiceImpl implements BorrowerService {
 
     private final BorrowerRepository borrowerRepository;
+    private final LibraryProperties properties;
+    private final Validator validator;
 
     @Override
     @Transactional
@@ -37,25 +54,60 @@ public class BorrowerServiceImpl implements BorrowerService {
     }
 
     @Override
-    public List<BorrowerResponseDTO> getAllBorrowers() {
-        return borrowerRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional
+    public BorrowerImportResponseDTO importBorrowers(InputStream csv) {
+        BorrowerCsvReader reader = new BorrowerCsvReader(
+                new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)),
+                validator,
+                properties.getBatch().getMaxReportedRejections());
+        
+        // Valid lines are streamed straight into COPY, emails are de-duplicated by one set-based insert
+        StagedImportResult result = borrowerRepository.copyInIgnoringExistingEmails(reader);
+        
+        return new BorrowerImportResponseDTO(
+                result.inserted(),
+                result.staged() - result.inserted(),
+                reader.getRejectedCount(),
+                reader.getRejections());
     }
 
     @Override
+    public CursorPageResponseDTO<BorrowerResponseDTO> getAllBorrowers(String cursor, Integer size) {
+        long afterId = KeysetCursor.decode(cursor, 0L);
+        int pageSize = KeysetCursor.pageSize(size, properties);
+        List<BorrowerResponseDTO> borrowers = borrowerRepository.findDtosByIdGreaterThan(afterId, Limit.of(pageSize + 1));
+        return KeysetCursor.toPage(borrowers, pageSize, BorrowerResponseDTO::getId, Function.identity());
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.BORROWERS, key = "#id")
     public BorrowerResponseDTO getBorrowerById(Long id) {
-        Borrower borrower = borrowerRepository.findById(id)
+        return borrowerRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + id));
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.BORROWERS, key = "#id")
+    public BorrowerResponseDTO reloadBorrowerById(Long id) {
+        return borrowerRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + id));
+    }
+
+    // Same as BookServiceImpl.getBookVersion: read on its own, never from the cached DTO
+    @Override
+    public long getBorrowerVersion(Long id) {
+        return borrowerRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Borrower not found with id: " + id));
-        return convertToDto(borrower);
     }
     
-    private BorrowerResponseDTO convertToDto(Borrower borrower) {
+    // Package-private and static for DtoMappingBenchmark
+    static BorrowerResponseDTO convertToDto(Borrower borrower) {
         BorrowerResponseDTO dto = new BorrowerResponseDTO();
         dto.setId(borrower.getId());
         dto.setName(borrower.getName());
         dto.setEmail(borrower.getEmail());
         dto.setCreatedAt(borrower.getCreatedAt());
+        dto.setVersion(borrower.getVersion());
         return dto;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,253 @@
+package app.library.service.impl;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import app.library.config.CacheConfig;
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.config.LibraryConfig.LibraryProperties.CacheInvalidationProperties;
+import app.library.event.BooksInvalidatedEvent;
+import app.library.model.entity.Book;
+import app.library.model.entity.Borrower;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Evicts the books and borrowers changed by any instance from the caches of this one, so that several
+ * instances can run side by side. The triggers of V14 announce the ids of changed rows on the
+ * {@value #CHANNEL} channel when the change commits; they are received on a connection of its own, outside
+ * the pool, which stays in LISTEN mode for the lifetime of the application.
+ * <p>
+ * Notifications arriving together are applied at once, and the books among them are published as a
+ * {@link BooksInvalidatedEvent}. Notifications sent while the connection is down are lost, so once it is back
+ * everything is evicted instead.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.library.cache-invalidation", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    static final String CHANNEL = "library_cache";
+    static final String APPLICATION_NAME = "library-cache-invalidation";
+
+    // A connection idle for this long is checked with a query, since a dead one does not always fail the wait
+    private static final int IDLE_CHECK_MILLIS = 10_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final LibraryProperties properties;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread listener;
+
+    @Override
+    public void start() {
+        running = true;
+        // Listening already when start() returns, before requests are served and the search index is loaded
+        boolean listening = listen();
+        listener = new Thread(() -> receiveUntilStopped(!listening), "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeConnection();
+        listener.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Before the web server, which starts at SmartLifecycle.DEFAULT_PHASE - 2048
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void receiveUntilStopped(boolean missedNotifications) {
+        CacheInvalidationProperties invalidation = properties.getCacheInvalidation();
+        while (running) {
+            if (missedNotifications) {
+                if (!listen()) {
+                    pause(invalidation.getReconnectDelay().toMillis());
+                    continue;
+                }
+                evictAll();
+                missedNotifications = false;
+            }
+            try {
+                receive(connection, invalidation.getCoalesceWindow().toNanos());
+            } catch (SQLException ex) {
+                if (running) {
+                    log.warn("Lost the cache invalidation connection, evicting all cached books and borrowers once it is back", ex);
+                }
+                closeConnection();
+                missedNotifications = true;
+            } catch (RuntimeException ex) {
+                // Typically the search index failing to read the changed books; the caches are evicted by then
+                log.error("Could not apply cache invalidations", ex);
+            }
+        }
+    }
+
+    private boolean listen() {
+        Properties connectionProperties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            connectionProperties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            connectionProperties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        // Shows up in pg_stat_activity
+        connectionProperties.setProperty("ApplicationName", APPLICATION_NAME);
+        connectionProperties.setProperty("tcpKeepAlive", "true");
+        try {
+            Connection listening = DriverManager.getConnection(dataSourceProperties.determineUrl(), connectionProperties);
+            try (Statement statement = listening.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+            } catch (SQLException ex) {
+                listening.close();
+                throw ex;
+            }
+            connection = listening;
+            return true;
+        } catch (SQLException ex) {
+            log.warn("Could not listen for cache invalidations on {}", dataSourceProperties.determineUrl(), ex);
+            return false;
+        }
+    }
+
+    /**
+     * Waits for notifications, then keeps collecting the ones arriving within the coalescing window so that a
+     * burst of changes is applied in one go.
+     */
+    private void receive(Connection listening, long coalesceWindowNanos) throws SQLException {
+        if (listening == null) {
+            throw new SQLException("The cache invalidation connection is closed");
+        }
+        PGConnection pgConnection = listening.unwrap(PGConnection.class);
+        PGNotification[] notifications = pgConnection.getNotifications(IDLE_CHECK_MILLIS);
+        if (notifications == null || notifications.length == 0) {
+            try (Statement statement = listening.createStatement()) {
+                statement.execute("SELECT 1");
+            }
+            return;
+        }
+        Set<String> payloads = new HashSet<>();
+        addPayloads(payloads, notifications);
+        long deadline = System.nanoTime() + coalesceWindowNanos;
+        for (long remaining = coalesceWindowNanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            // A timeout of zero would wait for good
+            addPayloads(payloads, pgConnection.getNotifications((int) Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining))));
+        }
+        apply(payloads);
+    }
+
+    private static void addPayloads(Set<String> payloads, PGNotification[] notifications) {
+        if (notifications != null) {
+            for (PGNotification notification : notifications) {
+                payloads.add(notification.getParameter());
+            }
+        }
+    }
+
+    /**
+     * Evicts the books and borrowers listed by the given payloads, each of the form {@code book:1,2,3} or
+     * {@code borrower:4}, from the caches and the second-level cache.
+     */
+    void apply(Collection<String> payloads) {
+        Set<Long> bookIds = new HashSet<>();
+        Set<Long> borrowerIds = new HashSet<>();
+        for (String payload : payloads) {
+            int separator = payload.indexOf(':');
+            Set<Long> ids = switch (separator < 0 ? "" : payload.substring(0, separator)) {
+                case "book" -> bookIds;
+                case "borrower" -> borrowerIds;
+                default -> null;
+            };
+            if (ids == null) {
+                log.warn("Ignoring unknown cache invalidation {}", payload);
+                continue;
+            }
+            try {
+                for (String id : payload.substring(separator + 1).split(",")) {
+                    ids.add(Long.valueOf(id));
+                }
+            } catch (NumberFormatException ex) {
+                log.warn("Ignoring malformed cache invalidation {}", payload);
+            }
+        }
+
+        Cache books = cacheManager.getCache(CacheConfig.BOOKS);
+        Cache borrowers = cacheManager.getCache(CacheConfig.BORROWERS);
+        jakarta.persistence.Cache entityCache = entityManagerFactory.getCache();
+        for (Long id : bookIds) {
+            books.evict(id);
+            entityCache.evict(Book.class, id);
+        }
+        for (Long id : borrowerIds) {
+            borrowers.evict(id);
+            entityCache.evict(Borrower.class, id);
+        }
+        if (!bookIds.isEmpty()) {
+            eventPublisher.publishEvent(BooksInvalidatedEvent.of(bookIds));
+        }
+    }
+
+    void evictAll() {
+        cacheManager.getCache(CacheConfig.BOOKS).clear();
+        cacheManager.getCache(CacheConfig.BORROWERS).clear();
+        entityManagerFactory.getCache().evict(Book.class);
+        entityManagerFactory.getCache().evict(Borrower.class);
+        eventPublisher.publishEvent(BooksInvalidatedEvent.everything());
+        log.info("Evicted all cached books and borrowers, cache invalidations may have been missed");
+    }
+
+    private void closeConnection() {
+        Connection closing = connection;
+        connection = null;
+        if (closing != null) {
+            try {
+                closing.close();
+            } catch (SQLException ex) {
+                log.debug("Could not close the cache invalidation connection", ex);
+            }
+        }
+    }
+
+    private void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package app.library.service.impl;
+
+import org.springframework.stereotype.Service;
+
+import app.library.exception.InvalidRequestException;
+import app.library.exception.ResourceNotFoundException;
+import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.BorrowerResponseDTO;
+import app.library.repository.CatalogRepository;
+import app.library.service.CatalogService;
+import app.library.validation.ISBNParser;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class CatalogServiceImpl implements CatalogService {
+
+    private final CatalogRepository catalogRepository;
+
+    @Override
+    public Mono<BookResponseDTO> getBook(Long id) {
+        return catalogRepository.findBookById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Book not found with id: " + id)));
+    }
+
+    @Override
+    public Flux<BookResponseDTO> getBooks(Long afterId, Long limit) {
+        return catalogRepository.findBooksAfter(afterId(afterId), limit(limit));
+    }
+
+    @Override
+    public Flux<BookResponseDTO> getBooksByIsbn(String isbn) {
+        long isbn13 = ISBNParser.toIsbn13(isbn);
+        if (isbn13 == ISBNParser.INVALID) {
+            throw new InvalidRequestException("Invalid ISBN: " + isbn);
+        }
+        return catalogRepository.findBooksByIsbn13(isbn13);
+    }
+
+    @Override
+    public Mono<BorrowerResponseDTO> getBorrower(Long id) {
+        return catalogRepository.findBorrowerById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Borrower not found with id: " + id)));
+    }
+
+    @Override
+    public Flux<BorrowerResponseDTO> getBorrowers(Long afterId, Long limit) {
+        return catalogRepository.findBorrowersAfter(afterId(afterId), limit(limit));
+    }
+
+    private static long afterId(Long requested) {
+        return requested == null ? 0L : requested;
+    }
+
+    // Streams have no page size: without a limit they run to the end of the table, at the client's pace
+    private static long limit(Long requested) {
+        if (requested == null) {
+            return Long.MAX_VALUE;
+        }
+        if (requested < 1) {
+            throw new InvalidRequestException("Limit must be at least 1");
+        }
+        return requested;
+    }
+}
@@ -0,0 +1,107 @@
+package app.library.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import app.library.config.CacheConfig;
+import app.library.model.entity.Title;
+import app.library.repository.TitleRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Title and author registered for an ISBN in the title table, read through the {@value CacheConfig#ISBN_TITLES}
+ * cache. ISBNs are identified by their canonical ISBN-13 (see {@link app.library.validation.ISBNParser}).
+ * <p>
+ * Only registered ISBNs are cached: an unknown ISBN becomes known with its first copy, which
+ * {@link BookCacheListener} puts into the cache once it is committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class IsbnTitleLookup {
+
+    private final TitleRepository titleRepository;
+    private final CacheManager cacheManager;
+
+    /**
+     * Returns the title and author registered for the ISBN, or null when it has no copies.
+     */
+    public TitleAuthor find(long isbn13) {
+        Cache cache = cache();
+        TitleAuthor cached = cache.get(isbn13, TitleAuthor.class);
+        if (cached != null) {
+            return cached;
+        }
+        return titleRepository.findById(isbn13)
+                .map(title -> register(cache, title))
+                .orElse(null);
+    }
+
+    /**
+     * Same as {@link #find} for many ISBNs, with one query for all that are not cached.
+     * ISBNs without copies are left out of the result.
+     */
+    public Map<Long, TitleAuthor> findAll(Collection<Long> isbn13s) {
+        Cache cache = cache();
+        Map<Long, TitleAuthor> titles = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long isbn13 : isbn13s) {
+            TitleAuthor cached = cache.get(isbn13, TitleAuthor.class);
+            if (cached != null) {
+                titles.put(isbn13, cached);
+            } else {
+                misses.add(isbn13);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Title title : titleRepository.findAllById(misses)) {
+                titles.put(title.getIsbn13(), register(cache, title));
+            }
+        }
+        return titles;
+    }
+
+    /**
+     * Registers the title and author of ISBNs that have none yet, in the current transaction, and returns
+     * what is registered for each of them afterwards: the given title and author, unless another request
+     * registered the ISBN first. Nothing is cached before the copies are committed.
+     */
+    public Map<Long, TitleAuthor> registerAll(Map<Long, TitleAuthor> titles) {
+        List<Title> rows = titles.entrySet().stream()
+                .map(entry -> new Title(entry.getKey(), entry.getValue().title(), entry.getValue().author()))
+                .toList();
+        Set<Long> inserted = titleRepository.registerMissing(rows);
+        Map<Long, TitleAuthor> registered = new HashMap<>(titles);
+        if (inserted.size() < titles.size()) {
+            List<Long> taken = titles.keySet().stream().filter(isbn13 -> !inserted.contains(isbn13)).toList();
+            for (Title title : titleRepository.findAllById(taken)) {
+                registered.put(title.getIsbn13(), new TitleAuthor(title.getTitle(), title.getAuthor()));
+            }
+        }
+        return registered;
+    }
+
+    void register(long isbn13, TitleAuthor titleAuthor) {
+        cache().putIfAbsent(isbn13, titleAuthor);
+    }
+
+    private TitleAuthor register(Cache cache, Title title) {
+        TitleAuthor titleAuthor = new TitleAuthor(title.getTitle(), title.getAuthor());
+        Cache.ValueWrapper existing = cache.putIfAbsent(title.getIsbn13(), titleAuthor);
+        return existing == null ? titleAuthor : (TitleAuthor) existing.get();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.ISBN_TITLES);
+    }
+
+    public record TitleAuthor(String title, String author) {
+    }
+}
@@ -0,0 +1,72 @@
+package app.library.service.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.exception.InvalidRequestException;
+import app.library.model.dto.CursorPageResponseDTO;
+
+/**
+ * Encodes and decodes the opaque continuation tokens used for keyset pagination.
+ * <p>
+ * A token carries the id of the last row of the previous page. Ids are the
+ * primary key, so they are unique, indexed and give a stable order even while
+ * rows are being inserted, which an offset cannot guarantee.
+ */
+final class KeysetCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetCursor() {
+    }
+
+    static long decode(String cursor, long firstValue) {
+        if (cursor == null || cursor.isEmpty()) {
+            return firstValue;
+        }
+        try {
+            byte[] bytes = DECODER.decode(cursor);
+            if (bytes.length != Long.BYTES) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+            return ByteBuffer.wrap(bytes).getLong();
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    static String encode(long lastId) {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(lastId).array());
+    }
+
+    static int pageSize(Integer requested, LibraryProperties properties) {
+        if (requested == null) {
+            return properties.getPagination().getDefaultSize();
+        }
+        if (requested < 1) {
+            throw new InvalidRequestException("Page size must be at least 1");
+        }
+        return Math.min(requested, properties.getPagination().getMaxSize());
+    }
+
+    /**
+     * Builds a page from rows fetched with a limit of {@code pageSize + 1}; the extra row only
+     * tells us whether another page exists and is not returned.
+     */
+    static <E, T> CursorPageResponseDTO<T> toPage(List<E> rows, int pageSize,
+            ToLongFunction<E> idOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        List<T> items = pageRows.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? encode(idOf.applyAsLong(pageRows.get(pageRows.size() - 1))) : null;
+        return new CursorPageResponseDTO<>(items, nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,51 @@
+package app.library.service.impl;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.repository.LoanRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps monthly partitions of the loan history in place ahead of time, so that new rows never
+ * land in the default partition. Runs at startup and then daily; creating a partition that
+ * already exists is a no-op, so several instances can run it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoanPartitionMaintainer {
+
+    private final LoanRepository loanRepository;
+    private final LibraryProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        createUpcomingPartitions();
+    }
+
+    @Scheduled(cron = "0 0 3 * * *", zone = "UTC")
+    public void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= properties.getLoan().getPartitionMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                if (loanRepository.createMonthlyPartition(month)) {
+                    log.info("Created loan partition for {}", month);
+                }
+            } catch (DataAccessException ex) {
+                // Typically rows for that month already sit in the default partition; they have to be
+                // moved out by hand before the partition can be created
+                log.error("Could not create loan partition for {}", month, ex);
+            }
+        }
+    }
+}
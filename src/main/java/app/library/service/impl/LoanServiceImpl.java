@@ -0,0 +1,62 @@
+package app.library.service.impl;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.exception.ResourceNotFoundException;
+import app.library.model.dto.CursorPageResponseDTO;
+import app.library.model.dto.LoanResponseDTO;
+import app.library.model.entity.Loan;
+import app.library.repository.BookRepository;
+import app.library.repository.BorrowerRepository;
+import app.library.repository.LoanRepository;
+import app.library.service.LoanService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@Timed("library.service")
+@RequiredArgsConstructor
+public class LoanServiceImpl implements LoanService {
+
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final LibraryProperties properties;
+
+    @Override
+    public CursorPageResponseDTO<LoanResponseDTO> getLoansOfBook(Long bookId, String cursor, Integer size) {
+        long afterId = KeysetCursor.decode(cursor, 0L);
+        int pageSize = KeysetCursor.pageSize(size, properties);
+        List<Loan> loans = loanRepository.findByBookIdAndIdGreaterThanOrderByIdAsc(bookId, afterId, Limit.of(pageSize + 1));
+        // An empty history is only worth a second look when it is the first page
+        if (loans.isEmpty() && afterId == 0L && !bookRepository.existsById(bookId)) {
+            throw new ResourceNotFoundException("Book not found with id: " + bookId);
+        }
+        return KeysetCursor.toPage(loans, pageSize, Loan::getId, this::convertToDto);
+    }
+
+    @Override
+    public CursorPageResponseDTO<LoanResponseDTO> getLoansOfBorrower(Long borrowerId, String cursor, Integer size) {
+        long afterId = KeysetCursor.decode(cursor, 0L);
+        int pageSize = KeysetCursor.pageSize(size, properties);
+        List<Loan> loans = loanRepository.findByBorrowerIdAndIdGreaterThanOrderByIdAsc(borrowerId, afterId, Limit.of(pageSize + 1));
+        if (loans.isEmpty() && afterId == 0L && !borrowerRepository.existsById(borrowerId)) {
+            throw new ResourceNotFoundException("Borrower not found with id: " + borrowerId);
+        }
+        return KeysetCursor.toPage(loans, pageSize, Loan::getId, this::convertToDto);
+    }
+
+    private LoanResponseDTO convertToDto(Loan loan) {
+        LoanResponseDTO dto = new LoanResponseDTO();
+        dto.setId(loan.getId());
+        dto.setBookId(loan.getBookId());
+        dto.setBorrowerId(loan.getBorrowerId());
+        dto.setEvent(loan.getEvent());
+        dto.setOccurredAt(loan.getOccurredAt());
+        return dto;
+    }
+}
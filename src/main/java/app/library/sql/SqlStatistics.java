@@ -0,0 +1,91 @@
+package app.library.sql;
+
+import java.time.Duration;
+
+/**
+ * The SQL statements run on behalf of one HTTP request: how many, their total time, and the slowest one.
+ * Statistics are collected on the thread handling the request, between {@link #start()} and {@link #stop()};
+ * statements run on other threads, such as those of a streamed response, are not counted.
+ */
+public final class SqlStatistics {
+
+    // Request attribute holding the statistics of a completed request
+    public static final String REQUEST_ATTRIBUTE = SqlStatistics.class.getName();
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long totalNanos;
+    private long slowestNanos;
+    private String slowestSql;
+    private long statementStartedAt;
+
+    /**
+     * Starts collecting the statements run on the current thread, discarding any earlier collection.
+     */
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stops collecting on the current thread.
+     *
+     * @return the statistics collected since {@link #start()}, or null if nothing was being collected
+     */
+    public static SqlStatistics stop() {
+        SqlStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    /**
+     * @return the statistics being collected on the current thread, or null
+     */
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    void statementStarted() {
+        statementStartedAt = System.nanoTime();
+    }
+
+    void statementCompleted(String sql) {
+        long elapsed = System.nanoTime() - statementStartedAt;
+        statements++;
+        totalNanos += elapsed;
+        if (elapsed > slowestNanos || slowestSql == null) {
+            slowestNanos = elapsed;
+            slowestSql = sql;
+        }
+    }
+
+    /**
+     * @return the number of statements executed; a JDBC batch counts as one
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    public Duration getTotalTime() {
+        return Duration.ofNanos(totalNanos);
+    }
+
+    public Duration getSlowestTime() {
+        return Duration.ofNanos(slowestNanos);
+    }
+
+    /**
+     * @return the SQL of the slowest statement, or null if none was executed
+     */
+    public String getSlowestSql() {
+        return slowestSql;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("statements=%d;time=%.3fms;slowest=%.3fms",
+                statements, totalNanos / 1_000_000.0, slowestNanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,37 @@
+package app.library.sql;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Reports the {@link SqlStatistics} of the request so far in the {@value #HEADER} response header, for example
+ * {@code statements=2;time=1.250ms;slowest=0.900ms}. Only added to responses with a body, before it is written.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "app.library.sql-statistics", name = "response-header", havingValue = "true")
+public class SqlStatisticsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-SQL-Statistics";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            response.getHeaders().set(HEADER, statistics.toString());
+        }
+        return body;
+    }
+}
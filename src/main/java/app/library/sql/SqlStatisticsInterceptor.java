@@ -0,0 +1,82 @@
+package app.library.sql;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects the {@link SqlStatistics} of each request and publishes them per endpoint, tagged with the method
+ * and the URI template:
+ * <ul>
+ * <li>{@code library.request.sql.statements}: the number of statements</li>
+ * <li>{@code library.request.sql.time}: the total time spent running them</li>
+ * <li>{@code library.request.sql.slowest}: the time of the slowest one</li>
+ * </ul>
+ * The statistics of the completed request are also left in the {@link SqlStatistics#REQUEST_ATTRIBUTE} request
+ * attribute, and logged at debug level along with the slowest statement.
+ */
+@Slf4j
+public class SqlStatisticsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param meterRegistry where to publish the statistics, or null to only log them
+     */
+    public SqlStatisticsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatistics.start();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        // The request thread is released, the async dispatch starts its own collection
+        SqlStatistics.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        SqlStatistics statistics = SqlStatistics.stop();
+        if (statistics == null) {
+            return;
+        }
+        request.setAttribute(SqlStatistics.REQUEST_ATTRIBUTE, statistics);
+
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri != null ? uri.toString() : "UNKNOWN");
+        if (meterRegistry != null) {
+            DistributionSummary.builder("library.request.sql.statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(statistics.getStatements());
+            Timer.builder("library.request.sql.time")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(statistics.getTotalTime().toNanos(), TimeUnit.NANOSECONDS);
+            Timer.builder("library.request.sql.slowest")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(statistics.getSlowestTime().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (log.isDebugEnabled() && statistics.getStatements() > 0) {
+            log.debug("{} {}: {}, slowest statement: {}", request.getMethod(), uri, statistics,
+                    statistics.getSlowestSql());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package app.library.sql;
+
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Adds every statement executed through the proxied data source to the {@link SqlStatistics} of the current
+ * thread, if any are being collected.
+ */
+public class SqlStatisticsListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.statementStarted();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.statementCompleted(queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+        }
+    }
+}
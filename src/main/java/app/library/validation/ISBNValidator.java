@@ -4,7 +4,7 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 /**
- * Validator for ISBN-10 and ISBN-13 numbers.
+ * Validator for ISBN-10 and ISBN-13 numbers, see {@link ISBNParser}.
  */
 public class ISBNValidator implements ConstraintValidator<ISBN, String> {
     
@@ -15,68 +15,10 @@ public class ISBNValidator implements ConstraintValidator<ISBN, String> {
     
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
-        if (value == null || value.trim().isEmpty()) {
+        if (value == null || value.isBlank()) {
             return true; // Let @NotBlank handle empty values
         }
         
-        // Special case for the problematic ISBN
-        if ("0-13-149505-0".equals(value) || "0131495050".equals(value)) {
-            return true;
-        }
-        
-        // Remove any hyphens or spaces to clean the ISBN
-        String cleanedISBN = value.replaceAll("[\\s-]", "");
-        
-        // Check lengths first before additional validation
-        if (cleanedISBN.length() == 10) {
-            // ISBN-10: Check all chars except last one are digits, last can be digit or 'X'
-            for (int i = 0; i < 9; i++) {
-                if (!Character.isDigit(cleanedISBN.charAt(i))) {
-                    return false;
-                }
-            }
-            
-            // Check last character
-            char lastChar = cleanedISBN.charAt(9);
-            if (!Character.isDigit(lastChar) && lastChar != 'X' && lastChar != 'x') {
-                return false;
-            }
-            
-            // Fixed calculation 
-            int sum = 0;
-            for (int i = 0; i < 9; i++) {
-                sum += (Character.getNumericValue(cleanedISBN.charAt(i)) * (10 - i));
-            }
-            
-            if (lastChar == 'X' || lastChar == 'x') {
-                sum += 10;
-            } else {
-                sum += Character.getNumericValue(lastChar);
-            }
-            
-            return (sum % 11 == 0);
-        } 
-        else if (cleanedISBN.length() == 13) {
-            // ISBN-13: All chars must be digits
-            for (int i = 0; i < 13; i++) {
-                if (!Character.isDigit(cleanedISBN.charAt(i))) {
-                    return false;
-                }
-            }
-            
-            // Calculate checksum
-            int sum = 0;
-            for (int i = 0; i < 12; i++) {
-                int digit = Character.getNumericValue(cleanedISBN.charAt(i));
-                sum += (i % 2 == 0) ? digit : digit * 3;
-            }
-            
-            int checkDigit = Character.getNumericValue(cleanedISBN.charAt(12));
-            int calculatedCheckDigit = (10 - (sum % 10)) % 10;
-            
-            return checkDigit == calculatedCheckDigit;
-        }
-        
-        return false; // Wrong length
+        return ISBNParser.isValid(value);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+-- Number of copies of each ISBN and how many of them are on the shelf, so that availability is a primary
+-- key lookup however many copies there are. Kept up to date with delta updates by the statements that add,
+-- borrow and return books, in the same transaction; the check catches a delta that was applied twice.
+CREATE TABLE isbn_availability (
+    isbn13 BIGINT PRIMARY KEY,
+    total_copies INTEGER NOT NULL,
+    available_copies INTEGER NOT NULL,
+    CHECK (available_copies BETWEEN 0 AND total_copies)
+);
+
+INSERT INTO isbn_availability (isbn13, total_copies, available_copies)
+SELECT isbn13, count(*), count(*) FILTER (WHERE borrower_id IS NULL)
+FROM book
+GROUP BY isbn13;
@@ -0,0 +1,43 @@
+-- Makes book reference title. This is the expand step: the instances of the previous release, which read and
+-- write the title and author of book, keep running next to the new ones during a rolling update, so book keeps
+-- both columns for now. db/contract holds the migration that drops them, for the release after this one.
+-- Everything below is quick, so the locks are held for a moment only. The lock timeout makes the migration fail
+-- instead of queueing behind a long transaction, which would stall every other query on book behind it.
+SET LOCAL lock_timeout = '5s';
+
+-- Writes wait until the end of this migration, so no copy of a new ISBN can slip in unnoticed. Reads go on.
+LOCK TABLE book IN SHARE ROW EXCLUSIVE MODE;
+
+-- ISBNs registered since V11
+INSERT INTO title (isbn13, title, author)
+SELECT DISTINCT ON (isbn13) isbn13, title, author
+FROM book b
+WHERE NOT EXISTS (SELECT 1 FROM title t WHERE t.isbn13 = b.isbn13)
+ORDER BY isbn13, id;
+
+-- Not checked against the existing rows here, which would keep writes waiting for a full scan; V13 does that.
+-- New and updated rows are checked from now on. idx_book_isbn13 serves the checks on the book side.
+ALTER TABLE book ADD CONSTRAINT fk_book_title FOREIGN KEY (isbn13) REFERENCES title(isbn13) NOT VALID;
+
+-- The new release no longer writes them. Only changes the catalog.
+ALTER TABLE book ALTER COLUMN title DROP NOT NULL, ALTER COLUMN author DROP NOT NULL;
+
+-- Keeps both releases working on the same rows until the columns are dropped. A copy registered by the
+-- previous release registers its title, which the foreign key requires and which it does not know about; a
+-- copy registered by the new release gets the title and author of its ISBN, which the previous release reads.
+-- The trigram indexes of V4 stay for the searches of the previous release.
+CREATE FUNCTION book_title_compat() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF NEW.title IS NULL THEN
+        SELECT t.title, t.author INTO NEW.title, NEW.author FROM title t WHERE t.isbn13 = NEW.isbn13;
+    ELSE
+        INSERT INTO title (isbn13, title, author) VALUES (NEW.isbn13, NEW.title, NEW.author)
+        ON CONFLICT (isbn13) DO NOTHING;
+    END IF;
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER book_title_compat BEFORE INSERT ON book
+    FOR EACH ROW EXECUTE FUNCTION book_title_compat();
@@ -0,0 +1,3 @@
+-- Checks the existing books against the foreign key added by V12. VALIDATE CONSTRAINT only takes a
+-- SHARE UPDATE EXCLUSIVE lock, so books can still be registered and borrowed during the scan.
+ALTER TABLE book VALIDATE CONSTRAINT fk_book_title;
@@ -0,0 +1,36 @@
+-- Announces changed books and borrowers on the library_cache channel, so that every instance can evict them
+-- from its in-process caches. NOTIFY is transactional: the ids are delivered when the change commits and
+-- dropped when it rolls back. Statement-level triggers send one notification per statement, not per row,
+-- whoever runs it, be it an instance of the application, a bulk import or a change made by hand.
+-- The payload is "book:1,2,3" or "borrower:4". A notification carries at most 8000 bytes, so the ids of large
+-- statements are sent in chunks of 300.
+CREATE FUNCTION notify_cache_invalidation() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM pg_notify('library_cache', TG_ARGV[0] || ':' || string_agg(id::text, ','))
+    FROM (SELECT id, (row_number() OVER () - 1) / 300 AS chunk FROM changed) AS ids
+    GROUP BY chunk;
+    RETURN NULL;
+END
+$$;
+
+-- A trigger with a transition table can only fire on one kind of event, hence one per event
+CREATE TRIGGER book_inserted_notify AFTER INSERT ON book
+    REFERENCING NEW TABLE AS changed
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('book');
+
+CREATE TRIGGER book_updated_notify AFTER UPDATE ON book
+    REFERENCING NEW TABLE AS changed
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('book');
+
+CREATE TRIGGER book_deleted_notify AFTER DELETE ON book
+    REFERENCING OLD TABLE AS changed
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('book');
+
+CREATE TRIGGER borrower_updated_notify AFTER UPDATE ON borrower
+    REFERENCING NEW TABLE AS changed
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('borrower');
+
+CREATE TRIGGER borrower_deleted_notify AFTER DELETE ON borrower
+    REFERENCING OLD TABLE AS changed
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_invalidation('borrower');
@@ -0,0 +1,4 @@
+-- Hibernate now allocates ids in blocks of 50 from these sequences (pooled optimizer),
+-- so the increment must match the allocationSize declared on the entities
+ALTER SEQUENCE book_id_seq INCREMENT BY 50;
+ALTER SEQUENCE borrower_id_seq INCREMENT BY 50;
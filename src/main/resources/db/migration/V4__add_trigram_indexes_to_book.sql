@@ -0,0 +1,6 @@
+-- Trigram indexes so case-insensitive substring searches on title and author
+-- (lower(column) LIKE '%term%') can use an index instead of a sequential scan
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_book_title_trgm ON book USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX idx_book_author_trgm ON book USING gin (lower(author) gin_trgm_ops);
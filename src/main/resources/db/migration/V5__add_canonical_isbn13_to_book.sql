@@ -0,0 +1,36 @@
+-- Canonical ISBN-13 of each book as a number, so that "0-306-40615-2" and "9780306406157" are the same key.
+-- The application fills it on insert (ISBNParser); existing rows are converted here.
+
+-- Same normalization as ISBNParser: drop separators, turn an ISBN-10 into 978 + its first nine digits
+-- + the ISBN-13 check digit, keep an ISBN-13 as it is
+CREATE FUNCTION pg_temp.to_isbn13(value TEXT) RETURNS BIGINT AS $$
+DECLARE
+    cleaned TEXT := upper(regexp_replace(value, '[\s-]', '', 'g'));
+    body TEXT;
+    total INT := 0;
+BEGIN
+    IF cleaned ~ '^[0-9]{13}$' THEN
+        RETURN cleaned::BIGINT;
+    END IF;
+    IF cleaned !~ '^[0-9]{9}[0-9X]$' THEN
+        RAISE EXCEPTION 'Book has an ISBN that cannot be converted to ISBN-13: %', value;
+    END IF;
+    body := '978' || left(cleaned, 9);
+    FOR i IN 1..12 LOOP
+        total := total + substr(body, i, 1)::INT * CASE WHEN i % 2 = 1 THEN 1 ELSE 3 END;
+    END LOOP;
+    RETURN (body || ((10 - total % 10) % 10)::TEXT)::BIGINT;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+-- Filled by changing the type of a placeholder column rather than by an UPDATE: the table is rewritten once
+-- and its indexes rebuilt in bulk, instead of a new row version and index entries for every book
+ALTER TABLE book ADD COLUMN isbn13 TEXT;
+ALTER TABLE book ALTER COLUMN isbn13 TYPE BIGINT USING pg_temp.to_isbn13(isbn);
+ALTER TABLE book ALTER COLUMN isbn13 SET NOT NULL;
+
+-- Serves lookups by ISBN and pages of the copies of one ISBN in id order
+CREATE INDEX idx_book_isbn13 ON book(isbn13, id);
+
+-- All ISBN lookups now go through isbn13
+DROP INDEX idx_book_isbn;
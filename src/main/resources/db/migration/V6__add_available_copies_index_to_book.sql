@@ -0,0 +1,3 @@
+-- Only the copies that are on the shelf, so claiming any available copy of an ISBN does not walk past
+-- the borrowed ones; entries come and go as copies are borrowed and returned
+CREATE INDEX idx_book_available_isbn13 ON book(isbn13, id) WHERE borrower_id IS NULL;
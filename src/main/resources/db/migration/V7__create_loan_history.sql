@@ -0,0 +1,34 @@
+-- Append-only history of checkouts and returns. Rows are only ever inserted, in the same statement
+-- that borrows or returns the book, and are partitioned by month so old months can be detached or
+-- dropped as a whole. Months are in UTC, like every other timestamp. There are no foreign keys, so
+-- an insert never has to check or lock the book and borrower rows.
+CREATE SEQUENCE loan_id_seq;
+
+CREATE TABLE loan (
+    id BIGINT NOT NULL DEFAULT nextval('loan_id_seq'),
+    book_id BIGINT NOT NULL,
+    borrower_id BIGINT NOT NULL,
+    event VARCHAR(10) NOT NULL,
+    occurred_at TIMESTAMP NOT NULL,
+    -- The partition key has to be part of the primary key
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+ALTER SEQUENCE loan_id_seq OWNED BY loan.id;
+
+-- Keyset pages of the history of one book or one borrower; created on every partition
+CREATE INDEX idx_loan_book_id ON loan(book_id, id);
+CREATE INDEX idx_loan_borrower_id ON loan(borrower_id, id);
+
+-- Catches rows outside the monthly partitions. The application creates the partitions for the
+-- coming months ahead of time, so this one stays empty unless that job stops running.
+CREATE TABLE loan_default PARTITION OF loan DEFAULT;
+
+-- The current month; later months are created by the application
+DO $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', now() AT TIME ZONE 'UTC');
+BEGIN
+    EXECUTE format('CREATE TABLE %I PARTITION OF loan FOR VALUES FROM (%L) TO (%L)',
+            'loan_' || to_char(month_start, 'YYYY_MM'), month_start, month_start + INTERVAL '1 month');
+END $$;
@@ -0,0 +1,3 @@
+-- Serves the current loans of a borrower, in id order for keyset pages, and the foreign key check
+-- when a borrower is deleted. Copies on the shelf are left out, which keeps the index small.
+CREATE INDEX idx_book_borrower_id ON book(borrower_id, id) WHERE borrower_id IS NOT NULL;
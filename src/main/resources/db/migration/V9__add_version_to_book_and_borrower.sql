@@ -0,0 +1,5 @@
+-- Row versions, the strong ETags of books and borrowers. Incremented by Hibernate on entity updates and by
+-- the borrow and return statements, which update book directly.
+-- A constant default is only recorded in the catalog (PostgreSQL 11+), so neither table is rewritten.
+ALTER TABLE book ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE borrower ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -1,26 +1,43 @@
 package app.library.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import app.library.exception.InvalidRequestException;
 import app.library.model.dto.BookRequestDTO;
 import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.CursorPageResponseDTO;
+import app.library.model.dto.IsbnAvailabilityDTO;
 import app.library.service.BookService;
 
 @WebMvcTest(BookController.class)
@@ -81,14 +98,175 @@ public class BookControllerTest {
         book2.setBorrowed(false);
         book2.setCreatedAt(Instant.now());
 
-        when(bookService.getAllBooks()).thenReturn(Arrays.asList(book1, book2));
+        when(bookService.getAllBooks(isNull(), isNull()))
+                .thenReturn(new CursorPageResponseDTO<>(Arrays.asList(book1, book2), null, false));
 
         mockMvc.perform(get("/api/books")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].title").value("Book 1"))
-                .andExpect(jsonPath("$[1].id").value(2))
-                .andExpect(jsonPath("$[1].title").value("Book 2"));
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Book 1"))
+                .andExpect(jsonPath("$.items[1].id").value(2))
+                .andExpect(jsonPath("$.items[1].title").value("Book 2"))
+                .andExpect(jsonPath("$.hasMore").value(false));
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testGetAllBooksWithInvalidCursor() throws Exception {
+        when(bookService.getAllBooks("not-a-cursor", null))
+                .thenThrow(new InvalidRequestException("Invalid cursor: not-a-cursor"));
+
+        mockMvc.perform(get("/api/books")
+                .param("cursor", "not-a-cursor")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor: not-a-cursor"));
+    }
+
+    @Test
+    public void testExportBooks() throws Exception {
+        BookResponseDTO book1 = new BookResponseDTO();
+        book1.setId(1L);
+        book1.setTitle("Book 1");
+
+        BookResponseDTO book2 = new BookResponseDTO();
+        book2.setId(2L);
+        book2.setTitle("Book 2");
+
+        doAnswer(invocation -> {
+            Consumer<BookResponseDTO> sink = invocation.getArgument(0);
+            sink.accept(book1);
+            sink.accept(book2);
+            return null;
+        }).when(bookService).exportBooks(any());
+
+        MvcResult result = mockMvc.perform(get("/api/books/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], BookResponseDTO.class).getId());
+        assertEquals("Book 2", objectMapper.readValue(lines[1], BookResponseDTO.class).getTitle());
+    }
+
+    @Test
+    public void testGetBookReturnsETag() throws Exception {
+        BookResponseDTO book = new BookResponseDTO();
+        book.setId(1L);
+        book.setTitle("Book 1");
+        book.setVersion(3L);
+
+        when(bookService.getBookById(1L)).thenReturn(book);
+
+        mockMvc.perform(get("/api/books/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.title").value("Book 1"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    public void testGetBookNotModified() throws Exception {
+        when(bookService.getBookVersion(1L)).thenReturn(3L);
+
+        mockMvc.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(bookService, never()).getBookById(any());
+    }
+
+    @Test
+    public void testGetBookReloadsStaleCachedBook() throws Exception {
+        BookResponseDTO cached = new BookResponseDTO();
+        cached.setId(1L);
+        cached.setTitle("Book 1");
+        cached.setVersion(3L);
+        BookResponseDTO current = new BookResponseDTO();
+        current.setId(1L);
+        current.setTitle("Book 1");
+        current.setBorrowerId(7L);
+        current.setVersion(4L);
+
+        when(bookService.getBookVersion(1L)).thenReturn(4L);
+        when(bookService.getBookById(1L)).thenReturn(cached);
+        when(bookService.reloadBookById(1L)).thenReturn(current);
+
+        mockMvc.perform(get("/api/books/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.borrowerId").value(7));
+    }
+
+    @Test
+    public void testReturnBookWithIfMatch() throws Exception {
+        BookResponseDTO book = new BookResponseDTO();
+        book.setId(1L);
+        book.setVersion(4L);
+
+        when(bookService.returnBook(1L, List.of(3L))).thenReturn(book);
+
+        mockMvc.perform(put("/api/books/1/return").header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    public void testReturnBookWithIfMatchList() throws Exception {
+        BookResponseDTO book = new BookResponseDTO();
+        book.setId(1L);
+        book.setVersion(5L);
+
+        when(bookService.returnBook(1L, List.of(3L, 4L))).thenReturn(book);
+
+        mockMvc.perform(put("/api/books/1/return").header(HttpHeaders.IF_MATCH, "\"3\", W/\"2\", \"4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
+    @Test
+    public void testReturnBookWithUnmatchableIfMatchList() throws Exception {
+        mockMvc.perform(put("/api/books/1/return").header(HttpHeaders.IF_MATCH, "W/\"3\", \"abc\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(bookService, never()).returnBook(any(), any());
+    }
+
+    @Test
+    public void testReturnBookWithMalformedIfMatch() throws Exception {
+        mockMvc.perform(put("/api/books/1/return").header(HttpHeaders.IF_MATCH, "3"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookService, never()).returnBook(any(), any());
+    }
+
+    @Test
+    public void testReturnBookWithWeakIfMatch() throws Exception {
+        mockMvc.perform(put("/api/books/1/return").header(HttpHeaders.IF_MATCH, "W/\"3\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(bookService, never()).returnBook(any(), any());
+    }
+
+    @Test
+    public void testGetAvailabilities() throws Exception {
+        when(bookService.getAvailability(List.of("0306406152", "0132350882"))).thenReturn(List.of(
+                new IsbnAvailabilityDTO("0306406152", 3, 1),
+                new IsbnAvailabilityDTO("0132350882", 0, 0)));
+
+        mockMvc.perform(get("/api/books/isbn/availability").param("isbn", "0306406152,0132350882"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].totalCopies").value(3))
+                .andExpect(jsonPath("$[0].availableCopies").value(1))
+                .andExpect(jsonPath("$[1].isbn").value("0132350882"));
+    }
+}
@@ -0,0 +1,197 @@
+package app.library.controller;
+
+import static app.library.sql.SqlBudget.statementsAtMost;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import app.library.model.entity.Book;
+import app.library.model.entity.Borrower;
+import app.library.model.entity.Title;
+import app.library.repository.BookRepository;
+import app.library.repository.BorrowerRepository;
+import app.library.repository.TitleRepository;
+
+/**
+ * Query budgets of the book endpoints: the number of SQL statements each may run, against the real schema.
+ * An endpoint going over its budget, such as an N+1 on a list, fails {@code mvn verify}, which runs this class
+ * with failsafe in CI.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class BookEndpointQueryBudgetIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgresContainer.getHost() + ":"
+                + postgresContainer.getFirstMappedPort() + "/" + postgresContainer.getDatabaseName());
+        registry.add("spring.r2dbc.username", postgresContainer::getUsername);
+        registry.add("spring.r2dbc.password", postgresContainer::getPassword);
+        // The real schema, with its partitioned loan table and trigram indexes
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowerRepository borrowerRepository;
+
+    @Autowired
+    private TitleRepository titleRepository;
+
+    private Borrower borrower;
+    private Borrower borrowerWithBook;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        borrower = new Borrower();
+        borrower.setName("Budget Borrower");
+        borrower.setEmail("budget" + System.nanoTime() + "@example.com");
+        borrower = borrowerRepository.save(borrower);
+
+        Title title = titleRepository.save(new Title(9780306406157L, "Budget Book", "Test Author"));
+
+        // Borrowed books on the list, each by a different borrower, are the worst case for N+1
+        for (int i = 0; i < 5; i++) {
+            Borrower bookBorrower = new Borrower();
+            bookBorrower.setName("Borrower " + i);
+            bookBorrower.setEmail("borrower" + i + "." + System.nanoTime() + "@example.com");
+            bookBorrower = borrowerRepository.save(bookBorrower);
+
+            Book borrowedBook = new Book();
+            borrowedBook.setIsbn("0306406152");
+            borrowedBook.setWork(title);
+            borrowedBook.setBorrower(bookBorrower);
+            bookRepository.save(borrowedBook);
+            borrowerWithBook = bookBorrower;
+        }
+
+        book = new Book();
+        book.setIsbn("0306406152");
+        book.setWork(title);
+        book = bookRepository.save(book);
+    }
+
+    @Test
+    @DisplayName("Test a page of books is one statement")
+    void getAllBooks_OneStatement() throws Exception {
+        mockMvc.perform(get("/api/books").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    @DisplayName("Test a book by id is at most one statement")
+    void getBookById_OneStatement() throws Exception {
+        mockMvc.perform(get("/api/books/{id}", book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    @DisplayName("Test a missing book is one statement")
+    void getBookById_NotFound_OneStatement() throws Exception {
+        mockMvc.perform(get("/api/books/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    @DisplayName("Test an unchanged book is answered with 304 from its version alone")
+    void getBookById_NotModified_OneStatement() throws Exception {
+        mockMvc.perform(get("/api/books/{id}", book.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    @DisplayName("Test the availability of several ISBNs is one statement")
+    void getAvailabilities_OneStatement() throws Exception {
+        mockMvc.perform(get("/api/books/isbn/availability").param("isbn", "0306406152", "0132350882"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    @DisplayName("Test a page of the books of a borrower is one statement")
+    void getBorrowerBooks_OneStatement() throws Exception {
+        mockMvc.perform(get("/api/borrowers/{id}/books", borrowerWithBook.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    @DisplayName("Test a borrower without books is checked to exist in a second statement")
+    void getBorrowerBooks_NoBooks_TwoStatements() throws Exception {
+        mockMvc.perform(get("/api/borrowers/{id}/books", borrower.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(2));
+    }
+
+    @Test
+    @DisplayName("Test creating a book checks its ISBN, inserts it and counts the copy in four statements")
+    void createBook_FourStatements() throws Exception {
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Budget Book\",\"author\":\"Test Author\",\"isbn\":\"0306406152\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(statementsAtMost(4));
+    }
+
+    @Test
+    @DisplayName("Test borrowing and returning a book are one statement each")
+    void borrowAndReturnBook_OneStatementEach() throws Exception {
+        mockMvc.perform(put("/api/books/{id}/borrow", book.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"borrowerId\":" + borrower.getId() + "}"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+
+        mockMvc.perform(put("/api/books/{id}/return", book.getId()))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    @DisplayName("Test borrowing an available copy of an ISBN is one statement")
+    void borrowBookByIsbn_OneStatement() throws Exception {
+        mockMvc.perform(put("/api/books/isbn/{isbn}/borrow", "0306406152")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"borrowerId\":" + borrower.getId() + "}"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+}
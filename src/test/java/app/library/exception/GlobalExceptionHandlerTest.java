@@ -0,0 +1,63 @@
+package app.library.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class GlobalExceptionHandlerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GlobalExceptionHandler handler;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new GlobalExceptionHandler(new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                .getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    public void testCountsErrorsByCategoryExceptionAndUri() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/books/7/borrow");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books/{id}/borrow");
+
+        handler.handleResourceAlreadyExistsException(new ResourceAlreadyExistsException("Book is already borrowed"), request);
+        handler.handleResourceAlreadyExistsException(new ResourceAlreadyExistsException("Book is already borrowed"), request);
+        handler.handleInvalidRequestException(new InvalidRequestException("Invalid ISBN: 12345"), request);
+
+        assertEquals(2.0, meterRegistry.get(GlobalExceptionHandler.METRIC)
+                .tag("category", "conflict")
+                .tag("exception", "ResourceAlreadyExistsException")
+                .tag("uri", "/api/books/{id}/borrow")
+                .counter()
+                .count());
+        assertEquals(1.0, meterRegistry.get(GlobalExceptionHandler.METRIC)
+                .tag("category", "invalid_request")
+                .counter()
+                .count());
+    }
+
+    @Test
+    public void testUnexpectedErrorsNameTheException() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/7");
+
+        assertEquals(500, handler.handleGenericException(new IllegalStateException("boom"), request)
+                .getStatusCode().value());
+
+        assertEquals(1.0, meterRegistry.get(GlobalExceptionHandler.METRIC)
+                .tag("category", "unexpected")
+                .tag("exception", "IllegalStateException")
+                .tag("uri", "UNKNOWN")
+                .counter()
+                .count());
+    }
+}
@@ -0,0 +1,146 @@
+package app.library.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.BorrowerResponseDTO;
+import app.library.model.entity.Book;
+import app.library.model.entity.Borrower;
+import app.library.model.entity.Title;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Guards the list read paths against N+1 queries: each page has to be a single SQL statement,
+ * whatever the number of borrowed books on it, and must leave the persistence context empty.
+ */
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+public class BookQueryCountIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowerRepository borrowerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Borrower borrower;
+
+    @BeforeEach
+    void setUp() {
+        Title title = new Title(9780306406157L, "Query Count", "Test Author");
+        entityManager.persist(title);
+        // Every book borrowed, each by a different borrower, which is the worst case for N+1
+        for (int i = 0; i < 5; i++) {
+            Borrower bookBorrower = new Borrower();
+            bookBorrower.setName("Borrower " + i);
+            bookBorrower.setEmail("borrower" + i + "@example.com");
+            entityManager.persist(bookBorrower);
+
+            Book book = new Book();
+            book.setIsbn("0306406152");
+            book.setWork(title);
+            book.setBorrower(bookBorrower);
+            entityManager.persist(book);
+            borrower = bookBorrower;
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Test a page of books is one statement")
+    void findDtosByIdGreaterThan_IsOneStatement() {
+        List<BookResponseDTO> books = bookRepository.findDtosByIdGreaterThan(0L, Limit.of(10));
+
+        assertEquals(5, books.size());
+        assertTrue(books.stream().allMatch(book -> book.isBorrowed() && book.getBorrowerName() != null));
+        assertSingleStatementWithoutEntities();
+    }
+
+    @Test
+    @DisplayName("Test a book by id is one statement")
+    void findDtoById_IsOneStatement() {
+        Long id = bookRepository.findDtosByIdGreaterThan(0L, Limit.of(1)).get(0).getId();
+        statistics.clear();
+
+        assertTrue(bookRepository.findDtoById(id).isPresent());
+        assertSingleStatementWithoutEntities();
+    }
+
+    @Test
+    @DisplayName("Test a page of search results is one statement")
+    void search_IsOneStatement() {
+        List<BookResponseDTO> books = bookRepository.search("query count", null, 0L, Limit.of(10));
+
+        assertEquals(5, books.size());
+        assertSingleStatementWithoutEntities();
+    }
+
+    @Test
+    @DisplayName("Test a page of the books of a borrower is one statement")
+    void findDtosByBorrowerId_IsOneStatement() {
+        List<BookResponseDTO> books = bookRepository.findDtosByBorrowerId(borrower.getId(), 0L, Limit.of(10));
+
+        assertEquals(1, books.size());
+        assertSingleStatementWithoutEntities();
+    }
+
+    @Test
+    @DisplayName("Test a page of borrowers is one statement")
+    void findBorrowerDtosByIdGreaterThan_IsOneStatement() {
+        List<BorrowerResponseDTO> borrowers = borrowerRepository.findDtosByIdGreaterThan(0L, Limit.of(10));
+
+        assertFalse(borrowers.isEmpty());
+        assertSingleStatementWithoutEntities();
+    }
+
+    private void assertSingleStatementWithoutEntities() {
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+}
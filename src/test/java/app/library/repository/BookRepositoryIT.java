@@ -20,6 +20,8 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import app.library.model.entity.Book;
+import app.library.model.entity.Title;
+import app.library.validation.ISBNParser;
 
 @DataJpaTest
 @Testcontainers
@@ -43,64 +45,54 @@ public class BookRepositoryIT {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private TitleRepository titleRepository;
+
     @Test
     @DisplayName("Test find by ISBN")
     void findByIsbn_ReturnsBookWithMatchingIsbn() {
-        Book book1 = new Book();
-        book1.setTitle("Test Book 1");
-        book1.setAuthor("Test Author 1");
-        book1.setIsbn("0306406152");
-        bookRepository.save(book1);
-
-        Book book2 = new Book();
-        book2.setTitle("Test Book 2");
-        book2.setAuthor("Test Author 2");
-        book2.setIsbn("0131495050");
-        bookRepository.save(book2);
+        saveBook("Test Book 1", "Test Author 1", "0306406152");
+
+        saveBook("Test Book 2", "Test Author 2", "0131495050");
 
         List<Book> result = bookRepository.findByIsbn("0306406152");
 
         assertEquals(1, result.size());
-        assertEquals("Test Book 1", result.get(0).getTitle());
-        assertEquals("Test Author 1", result.get(0).getAuthor());
+        assertEquals("Test Book 1", result.get(0).getWork().getTitle());
+        assertEquals("Test Author 1", result.get(0).getWork().getAuthor());
+    }
+
+    @Test
+    @DisplayName("Test find by ISBN matches other spellings of the same ISBN")
+    void findByIsbn_Isbn13OfStoredIsbn10_ReturnsBook() {
+        saveBook("Test Book 1", "Test Author 1", "0-306-40615-2");
+
+        List<Book> result = bookRepository.findByIsbn("978-0-306-40615-7");
+
+        assertEquals(1, result.size());
+        assertEquals(9780306406157L, result.get(0).getIsbn13());
     }
 
     @Test
     @DisplayName("Test find by title containing ignore case")
     void findByTitleContainingIgnoreCase_ReturnsMatchingBooks() {
-        Book book1 = new Book();
-        book1.setTitle("Java Programming");
-        book1.setAuthor("Author 1");
-        book1.setIsbn("0306406152");
-        bookRepository.save(book1);
-
-        Book book2 = new Book();
-        book2.setTitle("Python Basics");
-        book2.setAuthor("Author 2");
-        book2.setIsbn("0131495050");
-        bookRepository.save(book2);
-
-        Book book3 = new Book();
-        book3.setTitle("Advanced Java");
-        book3.setAuthor("Author 3");
-        book3.setIsbn("0393040029");
-        bookRepository.save(book3);
+        saveBook("Java Programming", "Author 1", "0306406152");
+
+        saveBook("Python Basics", "Author 2", "0131495050");
+
+        saveBook("Advanced Java", "Author 3", "0393040029");
 
         List<Book> result = bookRepository.findByTitleContainingIgnoreCase("java");
 
         assertEquals(2, result.size());
-        assertTrue(result.stream().anyMatch(b -> b.getTitle().equals("Java Programming")));
-        assertTrue(result.stream().anyMatch(b -> b.getTitle().equals("Advanced Java")));
+        assertTrue(result.stream().anyMatch(b -> b.getWork().getTitle().equals("Java Programming")));
+        assertTrue(result.stream().anyMatch(b -> b.getWork().getTitle().equals("Advanced Java")));
     }
 
     @Test
     @DisplayName("Test exists by ISBN and title and author")
     void existsByIsbnAndTitleAndAuthor_ReturnsTrueWhenExists() {
-        Book book = new Book();
-        book.setTitle("Test Book");
-        book.setAuthor("Test Author");
-        book.setIsbn("0306406152");
-        bookRepository.save(book);
+        saveBook("Test Book", "Test Author", "0306406152");
 
         boolean exists = bookRepository.existsByIsbnAndTitleAndAuthor("0306406152", "Test Book", "Test Author");
 
@@ -110,11 +102,7 @@ public class BookRepositoryIT {
     @Test
 
     void existsByIsbnAndTitleAndAuthor_ReturnsFalseWhenDoesNotExist() {
-        Book book = new Book();
-        book.setTitle("Test Book");
-        book.setAuthor("Test Author");
-        book.setIsbn("0306406152");
-        bookRepository.save(book);
+        saveBook("Test Book", "Test Author", "0306406152");
 
         boolean exists = bookRepository.existsByIsbnAndTitleAndAuthor("0306406152", "Different Title", "Test Author");
 
@@ -124,17 +112,20 @@ public class BookRepositoryIT {
     @Test
     @DisplayName("Test find by id")
     void findById_ReturnsBookWithMatchingId() {
-        Book book = new Book();
-        book.setTitle("Test Book");
-        book.setAuthor("Test Author");
-        book.setIsbn("0306406152");
-        Book savedBook = bookRepository.save(book);
+        Book savedBook = saveBook("Test Book", "Test Author", "0306406152");
 
         Optional<Book> result = bookRepository.findById(savedBook.getId());
 
         assertTrue(result.isPresent());
-        assertEquals("Test Book", result.get().getTitle());
-        assertEquals("Test Author", result.get().getAuthor());
+        assertEquals("Test Book", result.get().getWork().getTitle());
+        assertEquals("Test Author", result.get().getWork().getAuthor());
         assertEquals("0306406152", result.get().getIsbn());
     }
-} 
\ No newline at end of file
+
+    private Book saveBook(String title, String author, String isbn) {
+        Book book = new Book();
+        book.setIsbn(isbn);
+        book.setWork(titleRepository.save(new Title(ISBNParser.toIsbn13(isbn), title, author)));
+        return bookRepository.save(book);
+    }
+}
@@ -0,0 +1,45 @@
+package app.library.search;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.event.BooksInvalidatedEvent;
+import app.library.model.dto.BookResponseDTO;
+import app.library.service.BookService;
+
+@ExtendWith(MockitoExtension.class)
+public class BookSearchIndexLoaderTest {
+
+    @Mock
+    private BookSearchIndex searchIndex;
+
+    @Mock
+    private BookService bookService;
+
+    @Test
+    @DisplayName("Test invalidated books are read again and the ones no longer found are removed")
+    void onBooksInvalidated_DeletedBook_RemovedFromIndex() {
+        BookResponseDTO changed = new BookResponseDTO();
+        changed.setId(1L);
+        Set<Long> ids = Set.of(1L, 2L);
+        when(bookService.getBooksByIds(ids)).thenReturn(List.of(changed));
+        BookSearchIndexLoader loader = new BookSearchIndexLoader(searchIndex, bookService, new LibraryProperties());
+
+        loader.onBooksInvalidated(BooksInvalidatedEvent.of(ids));
+
+        verify(searchIndex).upsert(changed);
+        verify(searchIndex).remove(2L);
+        verify(searchIndex, never()).remove(1L);
+    }
+}
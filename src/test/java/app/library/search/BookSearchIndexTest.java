@@ -0,0 +1,165 @@
+package app.library.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import app.library.model.dto.BookResponseDTO;
+
+public class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.beginBuild();
+        index.load(book(1L, "The Hobbit", "J.R.R. Tolkien", "978-0-547-92822-7"));
+        index.load(book(2L, "The Silmarillion", "J.R.R. Tolkien", "9780544338012"));
+        index.load(book(3L, "The Hobbit", "J.R.R. Tolkien", "978-0-547-92822-7"));
+        index.load(book(4L, "Clean Code", "Robert C. Martin", "9780132350884"));
+        index.finishBuild();
+    }
+
+    @Test
+    @DisplayName("Test search matches word prefixes ignoring case")
+    void search_WordPrefixes_MatchesAllCopies() {
+        assertEquals(List.of(1L, 3L), ids(index.search("HOBB", null, null, 0L, 10)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search(null, "tolk", null, 0L, 10)));
+        assertEquals(List.of(2L), ids(index.search("the s", "tolkien", null, 0L, 10)));
+        assertTrue(index.search("obbit", null, null, 0L, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test search by ISBN ignores separators")
+    void search_IsbnPrefix_IgnoresSeparators() {
+        assertEquals(List.of(1L, 3L), ids(index.search(null, null, "97805479", 0L, 10)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search(null, null, "978-05", 0L, 10)));
+    }
+
+    @Test
+    @DisplayName("Test search by a complete ISBN finds every spelling of it")
+    void search_CompleteIsbn_MatchesIsbn10AndIsbn13Copies() {
+        index.upsert(book(5L, "Clean Code", "Robert C. Martin", "0-13-235088-2"));
+
+        assertEquals(List.of(4L, 5L), ids(index.search(null, null, "0132350882", 0L, 10)));
+        assertEquals(List.of(4L, 5L), ids(index.search(null, null, "978-0-13-235088-4", 0L, 10)));
+    }
+
+    @Test
+    @DisplayName("Test search pages in id order after the cursor")
+    void search_AfterIdAndLimit_ReturnsNextPage() {
+        assertEquals(List.of(1L, 2L), ids(index.search("the", null, null, 0L, 2)));
+        assertEquals(List.of(3L), ids(index.search("the", null, null, 2L, 2)));
+    }
+
+    @Test
+    @DisplayName("Test upsert adds copies and updates loan state")
+    void upsert_NewCopyAndBorrowedCopy_AreSearchable() {
+        BookResponseDTO borrowed = book(3L, "The Hobbit", "J.R.R. Tolkien", "978-0-547-92822-7");
+        borrowed.setBorrowed(true);
+        borrowed.setBorrowerId(7L);
+        borrowed.setBorrowerName("John Doe");
+        borrowed.setBorrowedAt(Instant.parse("2024-01-02T03:04:05.123456Z"));
+        index.upsert(borrowed);
+        // Out of order, as with ids allocated by another node
+        index.upsert(book(0L, "The Hobbit", "J.R.R. Tolkien", "978-0-547-92822-7"));
+
+        List<BookResponseDTO> books = index.search("hobbit", null, null, -1L, 10);
+
+        assertEquals(List.of(0L, 1L, 3L), ids(books));
+        assertFalse(books.get(1).isBorrowed());
+        assertNull(books.get(1).getBorrowerId());
+        assertTrue(books.get(2).isBorrowed());
+        assertEquals("John Doe", books.get(2).getBorrowerName());
+        assertEquals(Instant.parse("2024-01-02T03:04:05.123456Z"), books.get(2).getBorrowedAt());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), books.get(2).getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Test changes applied during the build win over rows read by it")
+    void load_AfterUpsertDuringBuild_KeepsNewerState() {
+        BookSearchIndex building = new BookSearchIndex();
+        building.beginBuild();
+        BookResponseDTO borrowed = book(1L, "The Hobbit", "J.R.R. Tolkien", "9780547928227");
+        borrowed.setBorrowerId(7L);
+        building.upsert(borrowed);
+        building.load(book(1L, "The Hobbit", "J.R.R. Tolkien", "9780547928227"));
+        assertFalse(building.isReady());
+        building.finishBuild();
+
+        assertEquals(7L, building.search("hobbit", null, null, 0L, 10).get(0).getBorrowerId());
+    }
+
+    @Test
+    @DisplayName("Test an older version arriving after a newer one is ignored")
+    void upsert_OlderVersionAfterNewer_KeepsNewerState() {
+        BookResponseDTO borrowed = book(1L, "The Hobbit", "J.R.R. Tolkien", "978-0-547-92822-7");
+        borrowed.setBorrowerId(7L);
+        borrowed.setVersion(2L);
+        BookResponseDTO returned = book(1L, "The Hobbit", "J.R.R. Tolkien", "978-0-547-92822-7");
+        returned.setVersion(3L);
+        index.upsert(returned);
+        index.upsert(borrowed);
+
+        BookResponseDTO book = index.search("hobbit", null, null, 0L, 1).get(0);
+
+        assertFalse(book.isBorrowed());
+        assertNull(book.getBorrowerId());
+        assertEquals(3L, book.getVersion());
+    }
+
+    @Test
+    @DisplayName("Test remove drops a deleted copy and keeps the others findable")
+    void remove_DeletedCopies_NoLongerFound() {
+        for (long id = 10L; id < 200L; id++) {
+            index.upsert(book(id, "Refactoring", "Martin Fowler", "9780134757599"));
+        }
+
+        index.remove(1L);
+        for (long id = 10L; id < 200L; id += 2) {
+            index.remove(id);
+        }
+        index.remove(1L);
+
+        assertEquals(List.of(3L), ids(index.search("hobbit", null, null, 0L, 10)));
+        List<Long> odd = ids(index.search("refactoring", null, null, 0L, 200));
+        assertEquals(95, odd.size());
+        assertTrue(odd.stream().allMatch(id -> id % 2 == 1));
+        assertEquals(98, index.size());
+    }
+
+    @Test
+    @DisplayName("Test a copy removed during the build is not loaded again")
+    void load_AfterRemoveDuringBuild_StaysRemoved() {
+        BookSearchIndex building = new BookSearchIndex();
+        building.beginBuild();
+        building.remove(1L);
+        building.load(book(1L, "The Hobbit", "J.R.R. Tolkien", "9780547928227"));
+        building.finishBuild();
+
+        assertTrue(building.search("hobbit", null, null, 0L, 10).isEmpty());
+    }
+
+    private static BookResponseDTO book(Long id, String title, String author, String isbn) {
+        BookResponseDTO book = new BookResponseDTO();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setIsbn(isbn);
+        book.setCreatedAt(Instant.parse("2024-01-01T00:00:00Z"));
+        return book;
+    }
+
+    private static List<Long> ids(List<BookResponseDTO> books) {
+        return books.stream().map(BookResponseDTO::getId).toList();
+    }
+}
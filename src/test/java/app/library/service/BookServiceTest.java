@@ -3,33 +3,67 @@ package app.library.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Set;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.event.BookChangedEvent;
+import app.library.exception.InvalidRequestException;
+import app.library.exception.PreconditionFailedException;
 import app.library.exception.ResourceAlreadyExistsException;
 import app.library.exception.ResourceNotFoundException;
+import app.library.model.dto.BookBatchItemResultDTO;
+import app.library.model.dto.BookBatchResponseDTO;
+import app.library.model.dto.BookBorrowRequestDTO;
+import app.library.model.dto.BookLoanBatchRequestDTO;
+import app.library.model.dto.BookLoanBatchResponseDTO;
+import app.library.model.dto.BookLoanItemResultDTO;
 import app.library.model.dto.BookRequestDTO;
 import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.CursorPageResponseDTO;
+import app.library.model.dto.IsbnAvailabilityDTO;
 import app.library.model.entity.Book;
+import app.library.model.entity.Borrower;
+import app.library.model.entity.IsbnAvailability;
+import app.library.model.entity.Title;
 import app.library.repository.BookRepository;
 import app.library.repository.BorrowerRepository;
+import app.library.repository.IsbnAvailabilityRepository;
+import app.library.search.BookSearchIndex;
 import app.library.service.impl.BookServiceImpl;
+import app.library.service.impl.IsbnTitleLookup;
+import app.library.service.impl.IsbnTitleLookup.TitleAuthor;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 
 @ExtendWith(MockitoExtension.class)
 public class BookServiceTest {
@@ -40,34 +74,56 @@ public class BookServiceTest {
     @Mock
     private BorrowerRepository borrowerRepository;
 
+    @Mock
+    private IsbnAvailabilityRepository isbnAvailabilityRepository;
+
+    @Spy
+    private LibraryProperties properties = new LibraryProperties();
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private BookSearchIndex searchIndex;
+
+    @Mock
+    private IsbnTitleLookup isbnTitleLookup;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
     private BookRequestDTO bookRequestDTO;
     private Book book;
+    private BookResponseDTO bookDto;
 
     @BeforeEach
     void setUp() {
         bookRequestDTO = new BookRequestDTO();
         bookRequestDTO.setTitle("Test Book");
         bookRequestDTO.setAuthor("Test Author");
-        bookRequestDTO.setIsbn("1234567890");
+        bookRequestDTO.setIsbn("0132350882");
 
         book = new Book();
         book.setId(1L);
-        book.setTitle("Test Book");
-        book.setAuthor("Test Author");
-        book.setIsbn("1234567890");
+        book.setIsbn("0132350882");
+        book.setIsbn13(9780132350884L);
+        book.setWork(new Title(9780132350884L, "Test Book", "Test Author"));
+
+        bookDto = new BookResponseDTO(1L, "Test Book", "Test Author", "0132350882", null, null, null, null);
     }
 
     @Test
     @DisplayName("Test create book success")
     void createBook_Success() {
-        when(bookRepository.existsByIsbnAndTitleAndAuthor(
-                bookRequestDTO.getIsbn(),
-                bookRequestDTO.getTitle(),
-                bookRequestDTO.getAuthor())).thenReturn(false);
-        when(bookRepository.findByIsbn(bookRequestDTO.getIsbn())).thenReturn(List.of());
+        Map<Long, TitleAuthor> newTitle = Map.of(9780132350884L, new TitleAuthor("Test Book", "Test Author"));
+        when(isbnTitleLookup.find(9780132350884L)).thenReturn(null);
+        when(isbnTitleLookup.registerAll(newTitle)).thenReturn(newTitle);
         when(bookRepository.save(any(Book.class))).thenReturn(book);
 
         BookResponseDTO result = bookService.createBook(bookRequestDTO);
@@ -76,74 +132,213 @@ public class BookServiceTest {
         assertEquals(1L, result.getId());
         assertEquals("Test Book", result.getTitle());
         assertEquals("Test Author", result.getAuthor());
-        assertEquals("1234567890", result.getIsbn());
+        assertEquals("0132350882", result.getIsbn());
         assertFalse(result.isBorrowed());
 
-        verify(bookRepository, times(1)).existsByIsbnAndTitleAndAuthor(
-                bookRequestDTO.getIsbn(),
-                bookRequestDTO.getTitle(),
-                bookRequestDTO.getAuthor());
-        verify(bookRepository, times(1)).findByIsbn(bookRequestDTO.getIsbn());
+        verify(isbnTitleLookup, times(1)).find(9780132350884L);
+        verify(isbnTitleLookup, times(1)).registerAll(newTitle);
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(isbnAvailabilityRepository, times(1)).addCopies(Map.of(9780132350884L, 1));
+        verify(eventPublisher, times(1)).publishEvent(new BookChangedEvent(result));
     }
 
     @Test
     @DisplayName("Test create book existing ISBN with different title or author")
     void createBook_ExistingISBNWithDifferentTitleOrAuthor() {
-        Book existingBook = new Book();
-        existingBook.setTitle("Different Title");
-        existingBook.setAuthor("Test Author");
-        existingBook.setIsbn("1234567890");
-
-        when(bookRepository.existsByIsbnAndTitleAndAuthor(
-                bookRequestDTO.getIsbn(),
-                bookRequestDTO.getTitle(),
-                bookRequestDTO.getAuthor())).thenReturn(false);
-        when(bookRepository.findByIsbn(bookRequestDTO.getIsbn())).thenReturn(List.of(existingBook));
+        when(isbnTitleLookup.find(9780132350884L))
+                .thenReturn(new TitleAuthor("Different Title", "Test Author"));
 
         assertThrows(ResourceAlreadyExistsException.class, () -> {
             bookService.createBook(bookRequestDTO);
         });
 
-        verify(bookRepository, times(1)).existsByIsbnAndTitleAndAuthor(
-                bookRequestDTO.getIsbn(),
-                bookRequestDTO.getTitle(),
-                bookRequestDTO.getAuthor());
-        verify(bookRepository, times(1)).findByIsbn(bookRequestDTO.getIsbn());
+        verify(isbnTitleLookup, times(1)).find(9780132350884L);
+        verify(isbnTitleLookup, never()).registerAll(any());
+        verify(bookRepository, never()).save(any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Test create book of a new ISBN registered concurrently with a different title")
+    void createBook_NewISBNRegisteredConcurrently() {
+        when(isbnTitleLookup.find(9780132350884L)).thenReturn(null);
+        when(isbnTitleLookup.registerAll(Map.of(9780132350884L, new TitleAuthor("Test Book", "Test Author"))))
+                .thenReturn(Map.of(9780132350884L, new TitleAuthor("Different Title", "Test Author")));
+
+        assertThrows(ResourceAlreadyExistsException.class, () -> bookService.createBook(bookRequestDTO));
         verify(bookRepository, never()).save(any(Book.class));
     }
 
+    @Test
+    @DisplayName("Test create books in bulk reports a result per item")
+    void createBooks_MixedBatch_ReportsPerItemResults() {
+        BookRequestDTO conflicting = new BookRequestDTO();
+        conflicting.setTitle("Other Title");
+        conflicting.setAuthor("Other Author");
+        conflicting.setIsbn("0306406152");
+
+        BookRequestDTO secondCopy = new BookRequestDTO();
+        secondCopy.setTitle("Test Book");
+        secondCopy.setAuthor("Test Author");
+        secondCopy.setIsbn("0132350882");
+
+        when(validator.validate(any(BookRequestDTO.class))).thenReturn(Set.of());
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        when(isbnTitleLookup.findAll(Set.of(9780132350884L, 9780306406157L)))
+                .thenReturn(Map.of(9780306406157L, new TitleAuthor("Registered Title", "Registered Author")));
+        Map<Long, TitleAuthor> newTitle = Map.of(9780132350884L, new TitleAuthor("Test Book", "Test Author"));
+        when(isbnTitleLookup.registerAll(newTitle)).thenReturn(newTitle);
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            long id = 1;
+            for (Book saved : books) {
+                saved.setId(id++);
+                saved.prePersist();
+            }
+            return books;
+        });
+
+        BookBatchResponseDTO result = bookService.createBooks(Arrays.asList(bookRequestDTO, null, conflicting, secondCopy));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getRejected());
+        assertEquals(BookBatchItemResultDTO.Status.CREATED, result.getItems().get(0).getStatus());
+        assertEquals(BookBatchItemResultDTO.Status.REJECTED, result.getItems().get(1).getStatus());
+        assertEquals(BookBatchItemResultDTO.Status.REJECTED, result.getItems().get(2).getStatus());
+        verify(isbnAvailabilityRepository, times(1)).addCopies(Map.of(9780132350884L, 2));
+        assertEquals(BookBatchItemResultDTO.Status.CREATED, result.getItems().get(3).getStatus());
+        assertEquals(2L, result.getItems().get(3).getBook().getId());
+
+        // One lookup for all distinct ISBNs and one chunk of inserts, no per-book queries
+        verify(isbnTitleLookup, times(1)).findAll(any());
+        verify(isbnTitleLookup, never()).find(anyLong());
+        verify(bookRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Test create books in bulk rejects oversized batches")
+    void createBooks_TooManyItems_ThrowsException() {
+        properties.getBatch().setMaxItems(1);
+
+        assertThrows(InvalidRequestException.class, () -> {
+            bookService.createBooks(List.of(bookRequestDTO, bookRequestDTO));
+        });
+    }
+
     @Test
     @DisplayName("Test get all books")
     void getAllBooks_ReturnsAllBooks() {
-        Book book1 = new Book();
-        book1.setId(1L);
-        book1.setTitle("Book 1");
-        book1.setAuthor("Author 1");
-        book1.setIsbn("1111111111");
+        BookResponseDTO book1 = new BookResponseDTO(1L, "Book 1", "Author 1", "1111111111", null, null, null, null);
+        BookResponseDTO book2 = new BookResponseDTO(2L, "Book 2", "Author 2", "2222222222", null, null, null, null);
 
-        Book book2 = new Book();
-        book2.setId(2L);
-        book2.setTitle("Book 2");
-        book2.setAuthor("Author 2");
-        book2.setIsbn("2222222222");
+        when(bookRepository.findDtosByIdGreaterThan(0L, Limit.of(21))).thenReturn(Arrays.asList(book1, book2));
 
-        when(bookRepository.findAll()).thenReturn(Arrays.asList(book1, book2));
-
-        List<BookResponseDTO> result = bookService.getAllBooks();
+        CursorPageResponseDTO<BookResponseDTO> result = bookService.getAllBooks(null, null);
 
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("Book 1", result.get(0).getTitle());
-        assertEquals("Book 2", result.get(1).getTitle());
+        assertEquals(2, result.getItems().size());
+        assertEquals("Book 1", result.getItems().get(0).getTitle());
+        assertEquals("Book 2", result.getItems().get(1).getTitle());
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+
+        verify(bookRepository, times(1)).findDtosByIdGreaterThan(0L, Limit.of(21));
+    }
+
+    @Test
+    @DisplayName("Test get all books continues from the returned cursor")
+    void getAllBooks_FullPage_ReturnsCursorForNextPage() {
+        BookResponseDTO book1 = new BookResponseDTO(1L, "Book 1", "Author 1", "1111111111", null, null, null, null);
+        BookResponseDTO book2 = new BookResponseDTO(2L, "Book 2", "Author 2", "2222222222", null, null, null, null);
+
+        when(bookRepository.findDtosByIdGreaterThan(0L, Limit.of(2))).thenReturn(Arrays.asList(book1, book2));
+        when(bookRepository.findDtosByIdGreaterThan(1L, Limit.of(2))).thenReturn(List.of(book2));
+
+        CursorPageResponseDTO<BookResponseDTO> firstPage = bookService.getAllBooks(null, 1);
+
+        assertEquals(1, firstPage.getItems().size());
+        assertEquals(1L, firstPage.getItems().get(0).getId());
+        assertTrue(firstPage.isHasMore());
+        assertNotNull(firstPage.getNextCursor());
+
+        CursorPageResponseDTO<BookResponseDTO> secondPage = bookService.getAllBooks(firstPage.getNextCursor(), 1);
+
+        assertEquals(1, secondPage.getItems().size());
+        assertEquals(2L, secondPage.getItems().get(0).getId());
+        assertFalse(secondPage.isHasMore());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Test get all books caps the page size")
+    void getAllBooks_OversizedPage_IsCapped() {
+        when(bookRepository.findDtosByIdGreaterThan(0L, Limit.of(101))).thenReturn(List.of());
+
+        CursorPageResponseDTO<BookResponseDTO> result = bookService.getAllBooks(null, 1_000_000);
+
+        assertTrue(result.getItems().isEmpty());
+        verify(bookRepository, times(1)).findDtosByIdGreaterThan(0L, Limit.of(101));
+    }
+
+    @Test
+    @DisplayName("Test get all books with a malformed cursor")
+    void getAllBooks_InvalidCursor_ThrowsException() {
+        assertThrows(InvalidRequestException.class, () -> {
+            bookService.getAllBooks("not-a-cursor", null);
+        });
+    }
 
-        verify(bookRepository, times(1)).findAll();
+    @Test
+    @DisplayName("Test search books by title and author")
+    void searchBooks_TitleAndAuthor_UsesCombinedQuery() {
+        when(bookRepository.search("Test", "Author", 0L, Limit.of(21))).thenReturn(List.of(bookDto));
+
+        CursorPageResponseDTO<BookResponseDTO> result = bookService.searchBooks(" Test ", "Author", null, null, null);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals("Test Book", result.getItems().get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("Test search books without a usable term")
+    void searchBooks_MissingOrShortTerm_ThrowsException() {
+        assertThrows(InvalidRequestException.class, () -> {
+            bookService.searchBooks(null, " ", null, null, null);
+        });
+        assertThrows(InvalidRequestException.class, () -> {
+            bookService.searchBooks("ab", null, null, null, null);
+        });
+    }
+
+    @Test
+    @DisplayName("Test search books by ISBN while the index is not loaded")
+    void searchBooks_IsbnWithoutIndex_FiltersCopiesOfIsbn() {
+        when(bookRepository.findDtosByIsbn13(9780132350884L, 0L, Limit.of(21)))
+                .thenReturn(List.of(bookDto));
+
+        assertEquals(1, bookService.searchBooks("test", null, "0132350882", null, null).getItems().size());
+        assertTrue(bookService.searchBooks("other", null, "0132350882", null, null).getItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test search books served from the index")
+    void searchBooks_IndexReady_DoesNotQueryDatabase() {
+        BookResponseDTO indexed = new BookResponseDTO();
+        indexed.setId(1L);
+        indexed.setTitle("Test Book");
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("te", null, null, 0L, 21)).thenReturn(List.of(indexed));
+
+        CursorPageResponseDTO<BookResponseDTO> result = bookService.searchBooks("te", null, null, null, null);
+
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        verify(bookRepository, never()).search(any(), any(), any(), any());
     }
 
     @Test
     @DisplayName("Test get book by id existing id")
     void getBookById_ExistingId_ReturnsBook() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.findDtoById(1L)).thenReturn(Optional.of(bookDto));
 
         BookResponseDTO result = bookService.getBookById(1L);
 
@@ -151,18 +346,343 @@ public class BookServiceTest {
         assertEquals(1L, result.getId());
         assertEquals("Test Book", result.getTitle());
 
-        verify(bookRepository, times(1)).findById(1L);
+        verify(bookRepository, times(1)).findDtoById(1L);
     }
 
     @Test
     @DisplayName("Test get book by id non existing id")
     void getBookById_NonExistingId_ThrowsException() {
-        when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+        when(bookRepository.findDtoById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> {
             bookService.getBookById(99L);
         });
 
-        verify(bookRepository, times(1)).findById(99L);
+        verify(bookRepository, times(1)).findDtoById(99L);
+    }
+
+    @Test
+    @DisplayName("Test get availability of an ISBN")
+    void getAvailability_Found() {
+        when(isbnAvailabilityRepository.findById(9780132350884L)).thenReturn(Optional.of(availability(9780132350884L, 3, 1)));
+
+        IsbnAvailabilityDTO result = bookService.getAvailability("0-13-235088-2");
+
+        assertEquals("0-13-235088-2", result.getIsbn());
+        assertEquals(3, result.getTotalCopies());
+        assertEquals(1, result.getAvailableCopies());
+    }
+
+    @Test
+    @DisplayName("Test get availability of an ISBN without copies")
+    void getAvailability_NotFound() {
+        when(isbnAvailabilityRepository.findById(9780132350884L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getAvailability("0132350882"));
+    }
+
+    @Test
+    @DisplayName("Test get availability of an invalid ISBN")
+    void getAvailability_InvalidIsbn() {
+        assertThrows(InvalidRequestException.class, () -> bookService.getAvailability("12345"));
+        verify(isbnAvailabilityRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Test get availability of several ISBNs in request order")
+    void getAvailability_Bulk_InRequestOrder() {
+        when(isbnAvailabilityRepository.findAllById(Set.of(9780132350884L, 9780306406157L)))
+                .thenReturn(List.of(availability(9780132350884L, 2, 0)));
+
+        List<IsbnAvailabilityDTO> result = bookService.getAvailability(List.of("9780306406157", "0132350882"));
+
+        assertEquals(2, result.size());
+        assertEquals(new IsbnAvailabilityDTO("9780306406157", 0, 0), result.get(0));
+        assertEquals(new IsbnAvailabilityDTO("0132350882", 2, 0), result.get(1));
+    }
+
+    @Test
+    @DisplayName("Test get availability of several ISBNs with an invalid one")
+    void getAvailability_Bulk_InvalidIsbn() {
+        assertThrows(InvalidRequestException.class, () -> bookService.getAvailability(List.of("0132350882", "12345")));
+        verify(isbnAvailabilityRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Test get book version")
+    void getBookVersion_Success() {
+        when(bookRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        assertEquals(3L, bookService.getBookVersion(1L));
+    }
+
+    @Test
+    @DisplayName("Test get book version of a book that does not exist")
+    void getBookVersion_NotFound() {
+        when(bookRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBookVersion(99L));
+    }
+
+    @Test
+    @DisplayName("Test borrow book success")
+    void borrowBook_Success() {
+        Borrower borrower = new Borrower();
+        borrower.setId(7L);
+        borrower.setName("Test Borrower");
+        book.setBorrower(borrower);
+        book.setBorrowedAt(Instant.now());
+        when(bookRepository.borrowIfAvailable(anyLong(), anyLong(), any(), any(Instant.class))).thenReturn(Optional.of(book));
+
+        BookResponseDTO result = bookService.borrowBook(1L, borrowRequest(7L), null);
+
+        assertTrue(result.isBorrowed());
+        assertEquals(7L, result.getBorrowerId());
+        assertEquals("Test Borrower", result.getBorrowerName());
+        verify(bookRepository, never()).findById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(new BookChangedEvent(result));
+    }
+
+    @Test
+    @DisplayName("Test borrow book that does not exist")
+    void borrowBook_BookNotFound() {
+        when(bookRepository.borrowIfAvailable(anyLong(), anyLong(), any(), any(Instant.class))).thenReturn(Optional.empty());
+        when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class,
+                () -> bookService.borrowBook(99L, borrowRequest(7L), null));
+
+        assertEquals("Book not found with id: 99", e.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test borrow book with unknown borrower")
+    void borrowBook_BorrowerNotFound() {
+        when(bookRepository.borrowIfAvailable(anyLong(), anyLong(), any(), any(Instant.class))).thenReturn(Optional.empty());
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(borrowerRepository.findById(99L)).thenReturn(Optional.empty());
+
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class,
+                () -> bookService.borrowBook(1L, borrowRequest(99L), null));
+
+        assertEquals("Borrower not found with id: 99", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test borrow book that is already borrowed")
+    void borrowBook_AlreadyBorrowed() {
+        when(bookRepository.borrowIfAvailable(anyLong(), anyLong(), any(), any(Instant.class))).thenReturn(Optional.empty());
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(borrowerRepository.findById(7L)).thenReturn(Optional.of(new Borrower()));
+
+        assertThrows(ResourceAlreadyExistsException.class, () -> bookService.borrowBook(1L, borrowRequest(7L), null));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test borrow book that changed since the expected version")
+    void borrowBook_VersionMismatch() {
+        book.setVersion(5L);
+        when(bookRepository.borrowIfAvailable(anyLong(), anyLong(), any(), any(Instant.class))).thenReturn(Optional.empty());
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+
+        assertThrows(PreconditionFailedException.class, () -> bookService.borrowBook(1L, borrowRequest(7L), List.of(4L)));
+        verify(borrowerRepository, never()).findById(anyLong());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test borrow any copy of an ISBN success")
+    void borrowBookByIsbn_Success() {
+        when(bookRepository.borrowAnyAvailable(anyLong(), anyLong(), any(Instant.class))).thenReturn(Optional.of(book));
+
+        BookResponseDTO result = bookService.borrowBookByIsbn("978-0-13-235088-4", borrowRequest(7L));
+
+        assertEquals(1L, result.getId());
+        verify(bookRepository, times(1)).borrowAnyAvailable(anyLong(), anyLong(), any(Instant.class));
+        verify(eventPublisher, times(1)).publishEvent(new BookChangedEvent(result));
+    }
+
+    @Test
+    @DisplayName("Test borrow any copy of an invalid ISBN")
+    void borrowBookByIsbn_InvalidIsbn() {
+        assertThrows(InvalidRequestException.class, () -> bookService.borrowBookByIsbn("12345", borrowRequest(7L)));
+        verify(bookRepository, never()).borrowAnyAvailable(anyLong(), anyLong(), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Test borrow any copy of an ISBN without copies")
+    void borrowBookByIsbn_NoCopies() {
+        when(bookRepository.borrowAnyAvailable(anyLong(), anyLong(), any(Instant.class))).thenReturn(Optional.empty());
+        when(isbnTitleLookup.find(9780132350884L)).thenReturn(null);
+
+        assertThrows(ResourceNotFoundException.class, () -> bookService.borrowBookByIsbn("0132350882", borrowRequest(7L)));
+    }
+
+    @Test
+    @DisplayName("Test borrow any copy of an ISBN when all copies are borrowed")
+    void borrowBookByIsbn_AllCopiesBorrowed() {
+        when(bookRepository.borrowAnyAvailable(anyLong(), anyLong(), any(Instant.class))).thenReturn(Optional.empty());
+        when(isbnTitleLookup.find(9780132350884L)).thenReturn(new TitleAuthor("Test Book", "Test Author"));
+        when(borrowerRepository.findById(7L)).thenReturn(Optional.of(new Borrower()));
+
+        assertThrows(ResourceAlreadyExistsException.class,
+                () -> bookService.borrowBookByIsbn("0132350882", borrowRequest(7L)));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Test return book success")
+    void returnBook_Success() {
+        when(bookRepository.returnIfBorrowed(anyLong(), any(), any(Instant.class))).thenReturn(Optional.of(book));
+
+        BookResponseDTO result = bookService.returnBook(1L, null);
+
+        assertFalse(result.isBorrowed());
+        verify(bookRepository, never()).findById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(new BookChangedEvent(result));
+    }
+
+    @Test
+    @DisplayName("Test return book that is not borrowed")
+    void returnBook_NotBorrowed() {
+        when(bookRepository.returnIfBorrowed(anyLong(), any(), any(Instant.class))).thenReturn(Optional.empty());
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class, () -> bookService.returnBook(1L, null));
+
+        assertEquals("Book is not currently borrowed", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test return book that does not exist")
+    void returnBook_BookNotFound() {
+        when(bookRepository.returnIfBorrowed(anyLong(), any(), any(Instant.class))).thenReturn(Optional.empty());
+        when(bookRepository.findById(99L)).thenReturn(Optional.empty());
+
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class, () -> bookService.returnBook(99L, null));
+
+        assertEquals("Book not found with id: 99", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test return book that changed since the expected version")
+    void returnBook_VersionMismatch() {
+        book.setVersion(5L);
+        when(bookRepository.returnIfBorrowed(anyLong(), any(), any(Instant.class))).thenReturn(Optional.empty());
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+
+        assertThrows(PreconditionFailedException.class, () -> bookService.returnBook(1L, List.of(4L)));
+    }
+
+    @Test
+    @DisplayName("Test get books borrowed by a borrower")
+    void getBooksBorrowedBy_ReturnsPage() {
+        when(bookRepository.findDtosByBorrowerId(7L, 0L, Limit.of(21))).thenReturn(List.of(bookDto));
+
+        CursorPageResponseDTO<BookResponseDTO> result = bookService.getBooksBorrowedBy(7L, null, null);
+
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        verify(borrowerRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Test get books borrowed by an unknown borrower")
+    void getBooksBorrowedBy_BorrowerNotFound() {
+        when(bookRepository.findDtosByBorrowerId(99L, 0L, Limit.of(21))).thenReturn(List.of());
+        when(borrowerRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBooksBorrowedBy(99L, null, null));
+    }
+
+    @Test
+    @DisplayName("Test borrow several books reports each item")
+    void borrowBooks_ReportsEachItem() {
+        when(bookRepository.borrowAllAvailable(anyLong(), any(), any(Instant.class))).thenReturn(List.of(book));
+        when(bookRepository.findLoansByIdIn(Set.of(2L, 3L))).thenReturn(List.of(loan(2L, 8L)));
+
+        BookLoanBatchResponseDTO result = bookService.borrowBooks(loanRequest(7L, 1L, 2L, 3L, 1L));
+
+        assertEquals(1, result.getDone());
+        assertEquals(3, result.getRejected());
+        List<BookLoanItemResultDTO> items = result.getItems();
+        assertEquals(BookLoanItemResultDTO.Status.DONE, items.get(0).getStatus());
+        assertEquals(1L, items.get(0).getBook().getId());
+        assertEquals("Book is already borrowed", items.get(1).getError());
+        assertEquals("Book not found with id: 3", items.get(2).getError());
+        assertEquals("Book is listed more than once", items.get(3).getError());
+        verify(bookRepository, times(1)).borrowAllAvailable(anyLong(), any(), any(Instant.class));
+        verify(borrowerRepository, never()).existsById(anyLong());
+        verify(eventPublisher, times(1)).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Test borrow several books with unknown borrower")
+    void borrowBooks_BorrowerNotFound() {
+        when(bookRepository.borrowAllAvailable(anyLong(), any(), any(Instant.class))).thenReturn(List.of());
+        when(borrowerRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> bookService.borrowBooks(loanRequest(99L, 1L, 2L)));
+        verify(bookRepository, never()).findLoansByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("Test borrow too many books at once")
+    void borrowBooks_TooManyItems() {
+        properties.getBatch().setMaxItems(2);
+
+        assertThrows(InvalidRequestException.class, () -> bookService.borrowBooks(loanRequest(7L, 1L, 2L, 3L)));
+        verify(bookRepository, never()).borrowAllAvailable(anyLong(), any(), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Test return several books reports each item")
+    void returnBooks_ReportsEachItem() {
+        when(bookRepository.returnAllBorrowedBy(anyLong(), any(), any(Instant.class))).thenReturn(List.of(book));
+        when(bookRepository.findLoansByIdIn(Set.of(2L, 3L))).thenReturn(List.of(loan(2L, null), loan(3L, 8L)));
+
+        BookLoanBatchResponseDTO result = bookService.returnBooks(loanRequest(7L, 1L, 2L, 3L));
+
+        assertEquals(1, result.getDone());
+        assertFalse(result.getItems().get(0).getBook().isBorrowed());
+        assertEquals("Book is not currently borrowed", result.getItems().get(1).getError());
+        assertEquals("Book is borrowed by another borrower", result.getItems().get(2).getError());
+    }
+
+    private static BookLoanBatchRequestDTO loanRequest(Long borrowerId, Long... bookIds) {
+        BookLoanBatchRequestDTO request = new BookLoanBatchRequestDTO();
+        request.setBorrowerId(borrowerId);
+        request.setBookIds(List.of(bookIds));
+        return request;
+    }
+
+    private static BookRepository.BookLoan loan(Long id, Long borrowerId) {
+        return new BookRepository.BookLoan() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBorrowerId() {
+                return borrowerId;
+            }
+        };
+    }
+
+    private static BookBorrowRequestDTO borrowRequest(Long borrowerId) {
+        BookBorrowRequestDTO request = new BookBorrowRequestDTO();
+        request.setBorrowerId(borrowerId);
+        return request;
+    }
+
+    private static IsbnAvailability availability(long isbn13, int totalCopies, int availableCopies) {
+        IsbnAvailability availability = new IsbnAvailability();
+        availability.setIsbn13(isbn13);
+        availability.setTotalCopies(totalCopies);
+        availability.setAvailableCopies(availableCopies);
+        return availability;
     }
-} 
\ No newline at end of file
+}
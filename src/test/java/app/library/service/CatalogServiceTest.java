@@ -0,0 +1,98 @@
+package app.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import app.library.exception.InvalidRequestException;
+import app.library.exception.ResourceNotFoundException;
+import app.library.model.dto.BookResponseDTO;
+import app.library.repository.CatalogRepository;
+import app.library.service.impl.CatalogServiceImpl;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogServiceTest {
+
+    @Mock
+    private CatalogRepository catalogRepository;
+
+    @InjectMocks
+    private CatalogServiceImpl catalogService;
+
+    @Test
+    @DisplayName("Test get book from the catalog")
+    void getBook_Found() {
+        when(catalogRepository.findBookById(1L)).thenReturn(Mono.just(book(1L)));
+
+        assertEquals(1L, catalogService.getBook(1L).block().getId());
+    }
+
+    @Test
+    @DisplayName("Test get book that is not in the catalog")
+    void getBook_NotFound() {
+        when(catalogRepository.findBookById(99L)).thenReturn(Mono.empty());
+
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class,
+                () -> catalogService.getBook(99L).block());
+
+        assertEquals("Book not found with id: 99", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test stream books from the start without a limit")
+    void getBooks_Defaults() {
+        when(catalogRepository.findBooksAfter(0L, Long.MAX_VALUE)).thenReturn(Flux.just(book(1L), book(2L)));
+
+        List<BookResponseDTO> books = catalogService.getBooks(null, null).collectList().block();
+
+        assertEquals(2, books.size());
+    }
+
+    @Test
+    @DisplayName("Test stream books with an invalid limit")
+    void getBooks_InvalidLimit() {
+        assertThrows(InvalidRequestException.class, () -> catalogService.getBooks(10L, 0L));
+        verify(catalogRepository, never()).findBooksAfter(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Test stream the copies of an ISBN-10 by its ISBN-13")
+    void getBooksByIsbn_Isbn10() {
+        when(catalogRepository.findBooksByIsbn13(9780132350884L)).thenReturn(Flux.just(book(52L)));
+
+        assertEquals(1, catalogService.getBooksByIsbn("0-13-235088-2").collectList().block().size());
+    }
+
+    @Test
+    @DisplayName("Test stream the copies of an invalid ISBN")
+    void getBooksByIsbn_InvalidIsbn() {
+        assertThrows(InvalidRequestException.class, () -> catalogService.getBooksByIsbn("12345"));
+        verify(catalogRepository, never()).findBooksByIsbn13(anyLong());
+    }
+
+    @Test
+    @DisplayName("Test get borrower that is not in the catalog")
+    void getBorrower_NotFound() {
+        when(catalogRepository.findBorrowerById(99L)).thenReturn(Mono.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> catalogService.getBorrower(99L).block());
+    }
+
+    private static BookResponseDTO book(Long id) {
+        return new BookResponseDTO(id, "Clean Code", "Robert C. Martin", "0-13-235088-2", null, null, null, null);
+    }
+}
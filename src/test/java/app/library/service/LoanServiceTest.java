@@ -0,0 +1,98 @@
+package app.library.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.exception.ResourceNotFoundException;
+import app.library.model.dto.CursorPageResponseDTO;
+import app.library.model.dto.LoanResponseDTO;
+import app.library.model.entity.Loan;
+import app.library.repository.BookRepository;
+import app.library.repository.BorrowerRepository;
+import app.library.repository.LoanRepository;
+import app.library.service.impl.LoanServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+public class LoanServiceTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BorrowerRepository borrowerRepository;
+
+    @Spy
+    private LibraryProperties properties = new LibraryProperties();
+
+    @InjectMocks
+    private LoanServiceImpl loanService;
+
+    @Test
+    @DisplayName("Test get loans of a book returns a page")
+    void getLoansOfBook_ReturnsPage() {
+        when(loanRepository.findByBookIdAndIdGreaterThanOrderByIdAsc(1L, 0L, Limit.of(2)))
+                .thenReturn(List.of(loan(10L, Loan.Event.BORROWED), loan(11L, Loan.Event.RETURNED)));
+
+        CursorPageResponseDTO<LoanResponseDTO> page = loanService.getLoansOfBook(1L, null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(Loan.Event.BORROWED, page.getItems().get(0).getEvent());
+        assertTrue(page.isHasMore());
+        verify(bookRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Test get loans of a book that does not exist")
+    void getLoansOfBook_BookNotFound() {
+        when(loanRepository.findByBookIdAndIdGreaterThanOrderByIdAsc(anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(bookRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> loanService.getLoansOfBook(99L, null, null));
+    }
+
+    @Test
+    @DisplayName("Test get loans of a borrower without history")
+    void getLoansOfBorrower_EmptyHistory() {
+        when(loanRepository.findByBorrowerIdAndIdGreaterThanOrderByIdAsc(anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(borrowerRepository.existsById(1L)).thenReturn(true);
+
+        CursorPageResponseDTO<LoanResponseDTO> page = loanService.getLoansOfBorrower(1L, null, null);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    private static Loan loan(Long id, Loan.Event event) {
+        Loan loan = new Loan();
+        loan.setId(id);
+        loan.setBookId(1L);
+        loan.setBorrowerId(7L);
+        loan.setEvent(event);
+        loan.setOccurredAt(Instant.now());
+        return loan;
+    }
+}
@@ -0,0 +1,135 @@
+package app.library.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import app.library.model.dto.BookBatchItemResultDTO;
+import app.library.model.dto.BookLoanBatchRequestDTO;
+import app.library.model.dto.BookRequestDTO;
+import app.library.model.dto.BorrowerRequestDTO;
+import app.library.model.dto.IsbnAvailabilityDTO;
+import app.library.service.BookService;
+import app.library.service.BorrowerService;
+
+/**
+ * Batch checkouts and check-ins running side by side, each touching several ISBNs in an order of its own.
+ */
+@SpringBootTest
+@Testcontainers
+public class BookLoanBatchConcurrencyIT {
+
+    private static final List<String> ISBNS = List.of("9780131177055", "9780131495050", "9780132350884",
+            "9780198526636", "9780201485677", "9780201633610", "9780306406157", "9780321125217");
+    private static final int BORROWERS = 8;
+    private static final int ROUNDS = 100;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgresContainer.getHost() + ":"
+                + postgresContainer.getFirstMappedPort() + "/" + postgresContainer.getDatabaseName());
+        registry.add("spring.r2dbc.username", postgresContainer::getUsername);
+        registry.add("spring.r2dbc.password", postgresContainer::getPassword);
+        // The real schema, with isbn_availability kept by the loan statements
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BorrowerService borrowerService;
+
+    @Test
+    @DisplayName("Test concurrent batch borrows and returns over shared ISBNs neither deadlock nor lose copies")
+    void borrowAndReturnBooks_Concurrently_KeepAvailability() throws Exception {
+        // One copy of every ISBN per borrower, so the batches never compete for a book, only for its ISBN
+        List<BookRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < BORROWERS; i++) {
+            for (String isbn : ISBNS) {
+                BookRequestDTO request = new BookRequestDTO();
+                request.setTitle("Concurrent Book " + isbn);
+                request.setAuthor("Test Author");
+                request.setIsbn(isbn);
+                requests.add(request);
+            }
+        }
+        List<BookBatchItemResultDTO> created = bookService.createBooks(requests).getItems();
+        List<Integer> before = availableCopies();
+
+        ExecutorService executor = Executors.newFixedThreadPool(BORROWERS);
+        try {
+            List<Future<?>> borrowers = new ArrayList<>();
+            for (int i = 0; i < BORROWERS; i++) {
+                List<Long> copies = created.subList(i * ISBNS.size(), (i + 1) * ISBNS.size()).stream()
+                        .map(item -> item.getBook().getId())
+                        .toList();
+                long borrowerId = createBorrower(i);
+                Random random = new Random(i);
+                borrowers.add(executor.submit(() -> {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        List<Long> batch = new ArrayList<>(copies.stream().filter(id -> random.nextBoolean()).toList());
+                        if (batch.isEmpty()) {
+                            continue;
+                        }
+                        assertEquals(batch.size(), bookService.borrowBooks(loanBatch(borrowerId, batch)).getDone());
+                        assertEquals(batch.size(), bookService.returnBooks(loanBatch(borrowerId, batch)).getDone());
+                    }
+                    return null;
+                }));
+            }
+            // A deadlock aborts one of the statements, which surfaces here
+            for (Future<?> borrower : borrowers) {
+                borrower.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(before, availableCopies());
+    }
+
+    private long createBorrower(int i) {
+        BorrowerRequestDTO request = new BorrowerRequestDTO();
+        request.setName("Concurrent Borrower " + i);
+        request.setEmail("concurrent" + i + "." + System.nanoTime() + "@example.com");
+        return borrowerService.createBorrower(request).getId();
+    }
+
+    private List<Integer> availableCopies() {
+        return bookService.getAvailability(ISBNS).stream().map(IsbnAvailabilityDTO::getAvailableCopies).toList();
+    }
+
+    private static BookLoanBatchRequestDTO loanBatch(long borrowerId, List<Long> bookIds) {
+        BookLoanBatchRequestDTO request = new BookLoanBatchRequestDTO();
+        request.setBorrowerId(borrowerId);
+        request.setBookIds(bookIds);
+        return request;
+    }
+}
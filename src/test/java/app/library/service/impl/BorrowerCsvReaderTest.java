@@ -0,0 +1,71 @@
+package app.library.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import app.library.repository.BorrowerRepositoryCustom.StagedBorrower;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+
+class BorrowerCsvReaderTest {
+
+    private ValidatorFactory validatorFactory;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @DisplayName("Test valid lines are yielded and invalid lines are rejected")
+    void readsValidLinesAndRejectsInvalidOnes() {
+        String csv = String.join("\n",
+                "name,email",
+                "John Doe,john.doe@example.com",
+                "\"Doe, Jane\",jane.doe@example.com",
+                "Missing Email",
+                "Bad Email,not-an-email",
+                "",
+                "\"Unterminated,x@example.com",
+                "Mary Major, mary@example.com ");
+
+        BorrowerCsvReader reader = new BorrowerCsvReader(new BufferedReader(new StringReader(csv)),
+                validatorFactory.getValidator(), 2);
+        List<StagedBorrower> borrowers = new ArrayList<>();
+        reader.forEachRemaining(borrowers::add);
+
+        assertEquals(3, borrowers.size());
+        assertEquals(new StagedBorrower(2, "John Doe", "john.doe@example.com"), borrowers.get(0));
+        assertEquals(new StagedBorrower(3, "Doe, Jane", "jane.doe@example.com"), borrowers.get(1));
+        assertEquals(new StagedBorrower(8, "Mary Major", "mary@example.com"), borrowers.get(2));
+
+        // Three rejected lines, only the first two are reported
+        assertEquals(3, reader.getRejectedCount());
+        assertEquals(2, reader.getRejections().size());
+        assertEquals(4, reader.getRejections().get(0).getLineNumber());
+        assertEquals("Bad Email,not-an-email", reader.getRejections().get(1).getLine());
+    }
+
+    @Test
+    @DisplayName("Test quoted fields with escaped quotes")
+    void parseFields_HandlesQuotes() {
+        assertEquals(List.of("Say \"Hi\"", "a@b.com"), BorrowerCsvReader.parseFields("\"Say \"\"Hi\"\"\",a@b.com"));
+        assertEquals(List.of("", ""), BorrowerCsvReader.parseFields(","));
+        assertNull(BorrowerCsvReader.parseFields("\"open,a@b.com"));
+    }
+}
@@ -0,0 +1,102 @@
+package app.library.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import app.library.config.CacheConfig;
+import app.library.model.dto.BookResponseDTO;
+import app.library.model.dto.BorrowerRequestDTO;
+import app.library.service.BorrowerService;
+
+/**
+ * Cache eviction across instances: changes made outside of this instance, straight in the database here,
+ * have to reach its caches through the listener.
+ */
+@SpringBootTest
+@Testcontainers
+public class CacheInvalidationIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:17-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgresContainer::getJdbcUrl);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", postgresContainer::getUsername);
+        registry.add("spring.datasource.password", postgresContainer::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgresContainer.getHost() + ":"
+                + postgresContainer.getFirstMappedPort() + "/" + postgresContainer.getDatabaseName());
+        registry.add("spring.r2dbc.username", postgresContainer::getUsername);
+        registry.add("spring.r2dbc.password", postgresContainer::getPassword);
+        // The real schema, with the triggers that announce changes
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("app.library.cache-invalidation.reconnect-delay", () -> "100ms");
+    }
+
+    @Autowired
+    private BorrowerService borrowerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Test a borrower changed by another instance is evicted")
+    void borrowerChangedElsewhere_Evicted() throws Exception {
+        // Registering a borrower is not announced, nothing else can evict it
+        BorrowerRequestDTO request = new BorrowerRequestDTO();
+        request.setName("Invalidated Borrower");
+        request.setEmail("invalidated" + System.nanoTime() + "@example.com");
+        Long borrowerId = borrowerService.createBorrower(request).getId();
+        borrowerService.getBorrowerById(borrowerId);
+        Cache borrowers = cacheManager.getCache(CacheConfig.BORROWERS);
+        assertNotNull(borrowers.get(borrowerId));
+
+        jdbcTemplate.update("UPDATE borrower SET name = 'Renamed Borrower' WHERE id = ?", borrowerId);
+
+        awaitTrue(() -> borrowers.get(borrowerId) == null);
+    }
+
+    @Test
+    @DisplayName("Test everything is evicted once the listener connection is back")
+    void connectionLost_EvictsAllOnceBack() throws Exception {
+        // An id no change is ever announced for, so only a full eviction removes it
+        Cache books = cacheManager.getCache(CacheConfig.BOOKS);
+        books.put(-1L, new BookResponseDTO());
+
+        jdbcTemplate.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                CacheInvalidationListener.APPLICATION_NAME);
+
+        awaitTrue(() -> books.get(-1L) == null);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,95 @@
+package app.library.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import app.library.config.CacheConfig;
+import app.library.config.LibraryConfig.LibraryProperties;
+import app.library.event.BooksInvalidatedEvent;
+import app.library.model.entity.Book;
+import app.library.model.entity.Borrower;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheInvalidationListenerTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache entityCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CacheManager cacheManager;
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.BOOKS, CacheConfig.BORROWERS);
+        cacheManager.getCache(CacheConfig.BOOKS).put(1L, "book 1");
+        cacheManager.getCache(CacheConfig.BOOKS).put(2L, "book 2");
+        cacheManager.getCache(CacheConfig.BOOKS).put(3L, "book 3");
+        cacheManager.getCache(CacheConfig.BORROWERS).put(1L, "borrower 1");
+        when(entityManagerFactory.getCache()).thenReturn(entityCache);
+        listener = new CacheInvalidationListener(new DataSourceProperties(), new LibraryProperties(), cacheManager,
+                entityManagerFactory, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Test apply evicts the listed books and borrowers and publishes the books once")
+    void apply_BookAndBorrowerPayloads_EvictsListedIds() {
+        listener.apply(List.of("book:1,2", "book:2", "borrower:1"));
+
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS).get(1L));
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS).get(2L));
+        assertNotNull(cacheManager.getCache(CacheConfig.BOOKS).get(3L));
+        assertNull(cacheManager.getCache(CacheConfig.BORROWERS).get(1L));
+        verify(entityCache).evict(Book.class, 1L);
+        verify(entityCache).evict(Book.class, 2L);
+        verify(entityCache).evict(Borrower.class, 1L);
+        verify(eventPublisher).publishEvent(BooksInvalidatedEvent.of(Set.of(1L, 2L)));
+    }
+
+    @Test
+    @DisplayName("Test apply skips unknown and malformed payloads")
+    void apply_UnknownAndMalformedPayloads_Ignored() {
+        listener.apply(List.of("loan:1", "book:x", "borrower:1"));
+
+        assertNotNull(cacheManager.getCache(CacheConfig.BOOKS).get(1L));
+        assertNull(cacheManager.getCache(CacheConfig.BORROWERS).get(1L));
+        verify(eventPublisher, never()).publishEvent(any(BooksInvalidatedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Test evict all clears both caches and asks for everything to be read again")
+    void evictAll_ClearsCaches() {
+        listener.evictAll();
+
+        assertNull(cacheManager.getCache(CacheConfig.BOOKS).get(3L));
+        assertNull(cacheManager.getCache(CacheConfig.BORROWERS).get(1L));
+        verify(entityCache).evict(Book.class);
+        verify(entityCache).evict(Borrower.class);
+        verify(eventPublisher).publishEvent(BooksInvalidatedEvent.everything());
+    }
+}
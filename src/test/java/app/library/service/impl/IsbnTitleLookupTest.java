@@ -0,0 +1,91 @@
+package app.library.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import app.library.config.CacheConfig;
+import app.library.model.entity.Title;
+import app.library.repository.TitleRepository;
+import app.library.service.impl.IsbnTitleLookup.TitleAuthor;
+
+@ExtendWith(MockitoExtension.class)
+public class IsbnTitleLookupTest {
+
+    @Mock
+    private TitleRepository titleRepository;
+
+    private IsbnTitleLookup lookup;
+
+    @BeforeEach
+    void setUp() {
+        lookup = new IsbnTitleLookup(titleRepository, new ConcurrentMapCacheManager(CacheConfig.ISBN_TITLES));
+    }
+
+    @Test
+    @DisplayName("Test find caches registered ISBNs but not unknown ones")
+    void find_RegisteredAndUnknownIsbn_CachesOnlyRegistered() {
+        when(titleRepository.findById(9780547928227L))
+                .thenReturn(Optional.of(new Title(9780547928227L, "The Hobbit", "J.R.R. Tolkien")));
+        when(titleRepository.findById(9780306406157L)).thenReturn(Optional.empty());
+
+        assertEquals(new TitleAuthor("The Hobbit", "J.R.R. Tolkien"), lookup.find(9780547928227L));
+        assertEquals(new TitleAuthor("The Hobbit", "J.R.R. Tolkien"), lookup.find(9780547928227L));
+        assertNull(lookup.find(9780306406157L));
+        assertNull(lookup.find(9780306406157L));
+
+        verify(titleRepository, times(1)).findById(9780547928227L);
+        verify(titleRepository, times(2)).findById(9780306406157L);
+    }
+
+    @Test
+    @DisplayName("Test find all only queries ISBNs that are not cached")
+    void findAll_PartlyCached_QueriesMissesOnce() {
+        lookup.register(9780547928227L, new TitleAuthor("The Hobbit", "J.R.R. Tolkien"));
+        when(titleRepository.findAllById(List.of(9780306406157L)))
+                .thenReturn(List.of(new Title(9780306406157L, "Clean Code", "Robert C. Martin")));
+
+        Map<Long, TitleAuthor> titles = lookup.findAll(List.of(9780547928227L, 9780306406157L));
+
+        assertEquals(2, titles.size());
+        assertEquals("Clean Code", lookup.find(9780306406157L).title());
+        verify(titleRepository, never()).findById(9780306406157L);
+    }
+
+    @Test
+    @DisplayName("Test register all returns the title registered first by a concurrent request")
+    void registerAll_TakenConcurrently_ReturnsRegisteredTitle() {
+        when(titleRepository.registerMissing(List.of(
+                new Title(9780547928227L, "The Hobbit", "J.R.R. Tolkien"),
+                new Title(9780306406157L, "Clean Code", "Robert C. Martin"))))
+                .thenReturn(Set.of(9780547928227L));
+        when(titleRepository.findAllById(List.of(9780306406157L)))
+                .thenReturn(List.of(new Title(9780306406157L, "Other Title", "Other Author")));
+
+        Map<Long, TitleAuthor> requested = new LinkedHashMap<>();
+        requested.put(9780547928227L, new TitleAuthor("The Hobbit", "J.R.R. Tolkien"));
+        requested.put(9780306406157L, new TitleAuthor("Clean Code", "Robert C. Martin"));
+
+        Map<Long, TitleAuthor> registered = lookup.registerAll(requested);
+
+        assertEquals(new TitleAuthor("The Hobbit", "J.R.R. Tolkien"), registered.get(9780547928227L));
+        assertEquals(new TitleAuthor("Other Title", "Other Author"), registered.get(9780306406157L));
+    }
+}
@@ -0,0 +1,33 @@
+package app.library.sql;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * MockMvc expectations on the SQL statements run by a request, as recorded by {@link SqlStatisticsInterceptor}.
+ * They only mean something against a real database, with the data source proxied by SqlStatisticsConfig.
+ */
+public final class SqlBudget {
+
+    private SqlBudget() {
+    }
+
+    /**
+     * Fails when the request ran more than the given number of statements, naming the slowest one.
+     */
+    public static ResultMatcher statementsAtMost(int budget) {
+        return result -> {
+            MockHttpServletRequest request = result.getRequest();
+            String endpoint = request.getMethod() + " " + request.getRequestURI();
+            SqlStatistics statistics = (SqlStatistics) request.getAttribute(SqlStatistics.REQUEST_ATTRIBUTE);
+
+            assertNotNull(statistics, () -> "No SQL statistics were recorded for " + endpoint);
+            assertTrue(statistics.getStatements() <= budget, () -> String.format(
+                    "%s ran %d SQL statements, over its budget of %d (%s); slowest statement: %s",
+                    endpoint, statistics.getStatements(), budget, statistics, statistics.getSlowestSql()));
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package app.library.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+public class SqlStatisticsInterceptorTest {
+
+    private final SqlStatisticsListener listener = new SqlStatisticsListener();
+
+    @Test
+    public void testStatementsAreRecordedPerRequest() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SqlStatisticsInterceptor interceptor = new SqlStatisticsInterceptor(meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+        execute("select * from book where id = ?");
+        execute("select * from borrower where id = ?");
+        interceptor.afterCompletion(request, response, null, null);
+
+        SqlStatistics statistics = (SqlStatistics) request.getAttribute(SqlStatistics.REQUEST_ATTRIBUTE);
+        assertEquals(2, statistics.getStatements());
+        assertTrue(statistics.getTotalTime().compareTo(statistics.getSlowestTime()) >= 0);
+        assertNull(SqlStatistics.current());
+
+        assertEquals(1, meterRegistry.get("library.request.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", "/api/books/{id}")
+                .summary()
+                .count());
+        assertEquals(2.0, meterRegistry.get("library.request.sql.statements").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("library.request.sql.time").timer().count());
+        assertEquals(1, meterRegistry.get("library.request.sql.slowest").timer().count());
+    }
+
+    @Test
+    public void testStatementsOutsideRequestsAreIgnored() {
+        execute("select 1");
+
+        assertNull(SqlStatistics.current());
+    }
+
+    @Test
+    public void testSlowestStatementIsKept() {
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            execute("select 1");
+            listener.beforeQuery(new ExecutionInfo(), List.of(new QueryInfo("select pg_sleep(0.01)")));
+            sleep(10);
+            listener.afterQuery(new ExecutionInfo(), List.of(new QueryInfo("select pg_sleep(0.01)")));
+        } finally {
+            assertSame(statistics, SqlStatistics.stop());
+        }
+
+        assertEquals(2, statistics.getStatements());
+        assertEquals("select pg_sleep(0.01)", statistics.getSlowestSql());
+    }
+
+    private void execute(String sql) {
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        listener.beforeQuery(new ExecutionInfo(), queries);
+        listener.afterQuery(new ExecutionInfo(), queries);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
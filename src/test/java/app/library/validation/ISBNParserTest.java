@@ -0,0 +1,50 @@
+package app.library.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class ISBNParserTest {
+
+    @ParameterizedTest
+    @DisplayName("Test ISBNs are normalized to the canonical ISBN-13")
+    @CsvSource({
+        "0-306-40615-2,     9780306406157",
+        "0306406152,        9780306406157",
+        "978-0-306-40615-7, 9780306406157",
+        "'978 0 306 40615 7', 9780306406157",
+        "039-3-04-002-X,    9780393040029",
+        "039304002x,        9780393040029",
+        "978-3-16-148410-0, 9783161484100"
+    })
+    void toIsbn13_ValidIsbn_ReturnsCanonicalIsbn13(String isbn, long expected) {
+        assertEquals(expected, ISBNParser.toIsbn13(isbn));
+    }
+
+    @Test
+    @DisplayName("Test the accepted ISBN-10 with a wrong check digit is normalized too")
+    void toIsbn13_KnownException_ReturnsIsbn13() {
+        assertEquals(9780131495050L, ISBNParser.toIsbn13("0-13-149505-0"));
+        assertEquals(9780131495050L, ISBNParser.toIsbn13("0131495050"));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test invalid ISBNs are rejected")
+    @ValueSource(strings = {
+        "0-306-40615-3",
+        "9780306406158",
+        "123456789",
+        "12345678901234",
+        "123456789X0",
+        "978030640615X",
+        "0-306-40615-2a",
+        ""
+    })
+    void toIsbn13_InvalidIsbn_ReturnsInvalid(String isbn) {
+        assertEquals(ISBNParser.INVALID, ISBNParser.toIsbn13(isbn));
+    }
+}